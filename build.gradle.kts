@@ -14,6 +14,11 @@ version = detectedVersion
 
 // Add a source set for the functional test suite
 val functionalTestSourceSet: SourceSet = sourceSets.create("functionalTest", Action {})
+// Add a source set for the JMH benchmarks of the plugin's own hot paths
+val jmhSourceSet: SourceSet = sourceSets.create("jmh", Action {
+    compileClasspath += sourceSets["main"].output
+    runtimeClasspath += sourceSets["main"].output
+})
 
 repositories {
     maven {
@@ -67,6 +72,10 @@ dependencies {
 
     testImplementation("org.junit.jupiter:junit-jupiter:6.0.1")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    "jmhImplementation"(gradleApi())
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 gradlePlugin {
@@ -171,7 +180,31 @@ configurations["functionalTestAnnotationProcessor"].extendsFrom(configurations["
 val functionalTest by tasks.registering(Test::class) {
     testClassesDirs = functionalTestSourceSet.output.classesDirs
     classpath = functionalTestSourceSet.runtimeClasspath
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+// Measure configuration time of generated mod projects against the committed baselines, not part of `check`.
+// Record new baselines with -Pgtnh.benchmark.updateBaselines=true
+val configurationBenchmark by tasks.registering(Test::class) {
+    group = "verification"
+    description = "Measures configuration time of generated mod projects against the committed baselines"
+    testClassesDirs = functionalTestSourceSet.output.classesDirs
+    classpath = functionalTestSourceSet.runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    val baselines = file("src/functionalTest/resources/benchmark-baselines.properties")
+    val results = layout.buildDirectory.file("reports/configurationBenchmark/results.properties")
+    systemProperty("gtnh.benchmark.baselines", baselines.absolutePath)
+    systemProperty("gtnh.benchmark.results", results.get().asFile.absolutePath)
+    systemProperty(
+        "gtnh.benchmark.updateBaselines",
+        providers.gradleProperty("gtnh.benchmark.updateBaselines").getOrElse("false")
+    )
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
 }
 
 gradlePlugin.testSourceSets.add(functionalTestSourceSet)
@@ -181,6 +214,25 @@ tasks.check {
     dependsOn(functionalTest)
 }
 
+configurations["jmhImplementation"].extendsFrom(configurations["implementation"])
+configurations["jmhRuntimeOnly"].extendsFrom(configurations["runtimeOnly"])
+
+// Run the benchmarks with `./gradlew jmh`, select some with `-Pjmh.includes=<regex>`
+val jmh by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Runs the JMH benchmarks of the plugin's hot paths"
+    classpath = jmhSourceSet.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val includes = providers.gradleProperty("jmh.includes").orElse(".*")
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(includes.get(), "-rf", "json", "-rff", results.get().asFile.absolutePath)
+    })
+    doFirst {
+        results.get().asFile.parentFile.mkdirs()
+    }
+}
+
 tasks.test {
     // Use JUnit Jupiter for unit tests.
     useJUnitPlatform()
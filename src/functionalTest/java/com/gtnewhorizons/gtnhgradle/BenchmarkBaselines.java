@@ -0,0 +1,149 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Committed configuration-time baselines, stored as {@code <scenario>.<metric> = <milliseconds>}. A measurement
+ * regresses when it exceeds its baseline by more than both the relative and the absolute tolerance, so that noise on
+ * fast scenarios doesn't fail the build while a fixed cost added to every mod still does.
+ */
+final class BenchmarkBaselines {
+
+    /** Classpath location of the committed baselines, used when no file is given */
+    static final String RESOURCE = "/benchmark-baselines.properties";
+
+    private static final String HEADER = """
+        # Configuration-time baselines of ConfigurationBenchmarkTest, in milliseconds. Record them on the reference
+        # machine with ./gradlew configurationBenchmark -Pgtnh.benchmark.updateBaselines=true
+        # Scenarios without a baseline are measured and reported, but never fail. Only commit values recorded on the
+        # reference machine named below, numbers from other machines or estimates make the gate meaningless.
+        """;
+
+    private final Map<String, Long> baselines;
+    private final double relativeTolerance;
+    private final long absoluteToleranceMillis;
+
+    BenchmarkBaselines(Map<String, Long> baselines, double relativeTolerance, long absoluteToleranceMillis) {
+        this.baselines = baselines;
+        this.relativeTolerance = relativeTolerance;
+        this.absoluteToleranceMillis = absoluteToleranceMillis;
+    }
+
+    /**
+     * Loads baselines from a file, or from {@link #RESOURCE} if the file is null.
+     *
+     * @param file                    The baselines file
+     * @param relativeTolerance       Allowed slowdown as a fraction of the baseline
+     * @param absoluteToleranceMillis Allowed slowdown in milliseconds
+     * @return The baselines
+     * @throws IOException Filesystem error
+     */
+    static BenchmarkBaselines load(Path file, double relativeTolerance, long absoluteToleranceMillis)
+        throws IOException {
+        final Properties props = new Properties();
+        if (file != null) {
+            if (Files.isRegularFile(file)) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    props.load(reader);
+                }
+            }
+        } else {
+            try (InputStream stream = BenchmarkBaselines.class.getResourceAsStream(RESOURCE)) {
+                if (stream != null) {
+                    props.load(stream);
+                }
+            }
+        }
+        final Map<String, Long> baselines = new TreeMap<>();
+        for (final String key : props.stringPropertyNames()) {
+            final String value = props.getProperty(key)
+                .trim();
+            if (!value.isEmpty()) {
+                baselines.put(key, Long.parseLong(value));
+            }
+        }
+        return new BenchmarkBaselines(baselines, relativeTolerance, absoluteToleranceMillis);
+    }
+
+    /**
+     * Compares a measurement to its baseline.
+     *
+     * @param key    The {@code <scenario>.<metric>} key
+     * @param millis The measured time
+     * @return A description of the regression, or null if there is none or no baseline was recorded
+     */
+    String check(String key, long millis) {
+        final Long baseline = baselines.get(key);
+        if (baseline == null) {
+            return null;
+        }
+        final long allowed = baseline + Math.max(Math.round(baseline * relativeTolerance), absoluteToleranceMillis);
+        if (millis <= allowed) {
+            return null;
+        }
+        return key + " took " + millis + " ms, baseline " + baseline + " ms, allowed up to " + allowed + " ms";
+    }
+
+    /**
+     * @param key The {@code <scenario>.<metric>} key
+     * @return Whether a baseline was recorded for it
+     */
+    boolean has(String key) {
+        return baselines.containsKey(key);
+    }
+
+    /** @return Whether any baseline was recorded */
+    boolean isEmpty() {
+        return baselines.isEmpty();
+    }
+
+    /** @return A description of the machine running the benchmark, written along with recorded baselines */
+    static String describeMachine() {
+        final Runtime runtime = Runtime.getRuntime();
+        return System.getProperty("os.name") + " "
+            + System.getProperty("os.version")
+            + " "
+            + System.getProperty("os.arch")
+            + ", "
+            + runtime.availableProcessors()
+            + " CPUs, "
+            + runtime.maxMemory() / (1024 * 1024)
+            + " MiB max heap, Java "
+            + System.getProperty("java.version")
+            + " ("
+            + System.getProperty("java.vendor")
+            + ")";
+    }
+
+    /**
+     * Writes measurements in the baselines format.
+     *
+     * @param file         Target file
+     * @param measurements Measured times by key
+     * @throws IOException Filesystem error
+     */
+    static void write(Path file, Map<String, Long> measurements) throws IOException {
+        final StringBuilder sb = new StringBuilder(HEADER);
+        sb.append("# Recorded on ")
+            .append(describeMachine())
+            .append('\n');
+        for (final Map.Entry<String, Long> entry : new TreeMap<>(measurements).entrySet()) {
+            sb.append(entry.getKey())
+                .append(" = ")
+                .append(entry.getValue())
+                .append('\n');
+        }
+        Files.createDirectories(
+            file.toAbsolutePath()
+                .getParent());
+        Files.writeString(file, sb.toString(), StandardCharsets.UTF_8);
+    }
+}
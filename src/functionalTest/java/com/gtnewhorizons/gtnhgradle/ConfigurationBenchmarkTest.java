@@ -0,0 +1,148 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the configuration time of {@link SyntheticModProject}s through TestKit, and fails when a scenario got
+ * slower than its committed baseline. Scenarios without a baseline are only measured, so the gate only becomes active
+ * once baselines were recorded on the reference machine. Tagged so that it only runs through the
+ * {@code configurationBenchmark} task.
+ * <p>
+ * For each scenario this measures:
+ * <ul>
+ * <li>{@code cold}: the first configuration of the project in an already running daemon</li>
+ * <li>{@code warm}: the median of the following configurations, without the configuration cache</li>
+ * <li>{@code ccStore}: configuring and storing the configuration cache entry</li>
+ * <li>{@code ccLoad}: the median of builds reusing the configuration cache entry</li>
+ * </ul>
+ * Times are the wall clock time of a {@code help} build, so they include the TestKit round trip, which is the same for
+ * every scenario and every run.
+ */
+@Tag("benchmark")
+class ConfigurationBenchmarkTest {
+
+    private static final int REPEATED_RUNS = 3;
+
+    private static final Map<String, Long> RESULTS = new TreeMap<>();
+    private static BenchmarkBaselines baselines;
+
+    @TempDir
+    static Path warmupDir;
+
+    @TempDir
+    Path projectDir;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        final String file = System.getProperty("gtnh.benchmark.baselines");
+        baselines = BenchmarkBaselines.load(
+            file == null ? null : Path.of(file),
+            Double.parseDouble(System.getProperty("gtnh.benchmark.relativeTolerance", "0.2")),
+            Long.getLong("gtnh.benchmark.absoluteToleranceMillis", 250L));
+        if (baselines.isEmpty()) {
+            System.out.println(
+                "No configuration benchmark baselines recorded, only measuring on "
+                    + BenchmarkBaselines.describeMachine());
+        }
+
+        // Start the daemon and load the plugin classpath once, so that the first scenario isn't penalized
+        SyntheticModProject.SCENARIOS.getFirst()
+            .generate(warmupDir);
+        createRunner(warmupDir, "--no-configuration-cache", "help").build();
+    }
+
+    @AfterAll
+    static void writeResults() throws IOException {
+        final String results = System.getProperty("gtnh.benchmark.results");
+        if (results != null) {
+            BenchmarkBaselines.write(Path.of(results), RESULTS);
+        }
+        final String file = System.getProperty("gtnh.benchmark.baselines");
+        if (file != null && Boolean.getBoolean("gtnh.benchmark.updateBaselines")) {
+            BenchmarkBaselines.write(Path.of(file), RESULTS);
+        }
+    }
+
+    static Stream<SyntheticModProject> scenarios() {
+        return SyntheticModProject.SCENARIOS.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("scenarios")
+    void configurationTime(SyntheticModProject scenario) throws IOException {
+        scenario.generate(projectDir);
+
+        final Map<String, Long> measured = new TreeMap<>();
+        measured.put(scenario.name() + ".cold", time("--no-configuration-cache").millis());
+        measured.put(scenario.name() + ".warm", median("--no-configuration-cache"));
+        measured.put(scenario.name() + ".ccStore", time("--configuration-cache").millis());
+        measured.put(scenario.name() + ".ccLoad", median("--configuration-cache"));
+        RESULTS.putAll(measured);
+
+        final List<String> regressions = new ArrayList<>();
+        for (final Map.Entry<String, Long> entry : measured.entrySet()) {
+            final String note = baselines.has(entry.getKey()) ? "" : " (no baseline)";
+            System.out.println(entry.getKey() + ": " + entry.getValue() + " ms" + note);
+            final String regression = baselines.check(entry.getKey(), entry.getValue());
+            if (regression != null) {
+                regressions.add(regression);
+            }
+        }
+        if (!Boolean.getBoolean("gtnh.benchmark.updateBaselines")) {
+            assertTrue(regressions.isEmpty(), "Configuration time regressed:\n" + String.join("\n", regressions));
+        }
+    }
+
+    private record Run(long millis, BuildResult result) {}
+
+    private Run time(String cacheArgument) {
+        final GradleRunner runner = createRunner(projectDir, cacheArgument, "help");
+        final long start = System.nanoTime();
+        final BuildResult result = runner.build();
+        return new Run((System.nanoTime() - start) / 1_000_000L, result);
+    }
+
+    private long median(String cacheArgument) {
+        final long[] times = new long[REPEATED_RUNS];
+        for (int i = 0; i < REPEATED_RUNS; i++) {
+            final Run run = time(cacheArgument);
+            if (cacheArgument.equals("--configuration-cache")) {
+                // A miss here is a regression of its own, and would be measured as a store
+                assertTrue(
+                    run.result()
+                        .getOutput()
+                        .contains("Reusing configuration cache"),
+                    "The configuration cache entry was not reused");
+            }
+            times[i] = run.millis();
+        }
+        Arrays.sort(times);
+        return times[REPEATED_RUNS / 2];
+    }
+
+    private static GradleRunner createRunner(Path dir, String... args) {
+        return GradleRunner.create()
+            .withEnvironment(Map.of("VERSION", "1.0.0"))
+            .withArguments(args)
+            .withPluginClasspath()
+            .withProjectDir(dir.toFile());
+    }
+}
@@ -8,6 +8,10 @@ import java.io.IOException;
 import java.io.Writer;
 import java.io.FileWriter;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.gtnewhorizons.retrofuturagradle.shadow.com.google.common.collect.ImmutableMap;
 import org.gradle.testkit.runner.GradleRunner;
@@ -166,6 +170,31 @@ class GTNHGradlePluginFunctionalTest {
         assertFalse(output.contains("downgradeTestClasses"), "downgradeTestClasses should not exist in jabel mode");
     }
 
+    @Test
+    void jvmDowngraderConstraint_onlyAddedToResolvedConfigurations() throws IOException {
+        setupProject("""
+            modName = MyMod
+            modId = mymodid
+            modGroup = com.myname.mymodid
+            enableModernJavaSyntax = jvmDowngrader
+            jvmDowngraderStubsProvider = gtnhlib
+            """);
+        // A legacy configuration is resolvable when created, its roles are only set afterwards
+        writeString(getBuildFile(), SIMPLE_BUILD_FILE + """
+            val legacy = configurations.create("legacyProbe")
+            legacy.isCanBeResolved = false
+            val resolved = configurations.create("resolvedProbe")
+            resolved.files
+            println("legacyProbe constraints = " + legacy.dependencyConstraints.map { it.name })
+            println("resolvedProbe constraints = " + resolved.dependencyConstraints.map { it.name })
+            """);
+
+        final String output = createRunner("help").build()
+            .getOutput();
+        assertTrue(output.contains("legacyProbe constraints = []"), "Not resolved, so no constraints expected");
+        assertTrue(output.contains("resolvedProbe constraints = [GTNHLib]"), "The constraint should be added");
+    }
+
     @Test
     void invalidModernJavaSyntaxMode_failsWithHelpfulMessage() throws IOException {
         setupProject("""
@@ -329,4 +358,237 @@ class GTNHGradlePluginFunctionalTest {
                 .contains("downgradeJar"),
             "jvmDowngraderMultiReleaseVersions=21,25 should auto-bump toolchain to 25");
     }
+
+    @Test
+    void missingApiPackage_failsOnlyStructureCheckTask() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE + "apiPackage = api\n");
+
+        // Configuring the project and unrelated tasks is not affected
+        createRunner("tasks").build();
+
+        final BuildResult failed = createRunner("checkProjectStructure").buildAndFail();
+        assertTrue(
+            failed.getOutput()
+                .contains("Could not resolve \"apiPackage\"! Could not find src/main/java/com/myname/mymodid/api"));
+
+        Files.createDirectories(
+            projectDir.toPath()
+                .resolve("src/main/java/com/myname/mymodid/api"));
+        final BuildResult passed = createRunner("checkProjectStructure").build();
+        assertEquals(
+            TaskOutcome.SUCCESS,
+            passed.task(":checkProjectStructure")
+                .getOutcome());
+        final BuildResult upToDate = createRunner("checkProjectStructure").build();
+        assertEquals(
+            TaskOutcome.UP_TO_DATE,
+            upToDate.task(":checkProjectStructure")
+                .getOutcome());
+    }
+
+    @Test
+    void missingAccessTransformer_failsOnlyValidationTask() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE + "accessTransformersFile = mymodid_at.cfg\n");
+
+        createRunner("tasks").build();
+
+        final BuildResult failed = createRunner("validateAccessTransformers").buildAndFail();
+        assertTrue(
+            failed.getOutput()
+                .contains("Could not resolve \"accessTransformersFile\"!"));
+    }
+
+    @Test
+    void maintenanceTasks_skipFullSetup() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE);
+
+        final BuildResult lightweight = createRunner("faq", "propertiesHelp").build();
+        assertTrue(
+            lightweight.getOutput()
+                .contains("GTNH lightweight configuration, only applying [UtilityModule]"));
+
+        final BuildResult full = createRunner("faq", "-Pgtnh.lightweight=false").build();
+        assertFalse(
+            full.getOutput()
+                .contains("GTNH lightweight configuration"));
+    }
+
+    @Test
+    void eagerTaskRealization_isAttributedToTheScript() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE);
+        writeString(getBuildFile(), SIMPLE_BUILD_FILE + """
+            tasks.register("eagerProbe").get()
+            """);
+
+        final BuildResult warned = createRunner("help", "-Pgtnh.auditEagerConfiguration=warn").build();
+        assertTrue(
+            warned.getOutput()
+                .contains("task :eagerProbe by script build.gradle.kts"),
+            "The eagerly realized task should be attributed to the build script");
+        final String report = Files.readString(
+            projectDir.toPath()
+                .resolve("build/gtnh/eager-configuration.json"));
+        assertTrue(report.contains("\"subject\": \":eagerProbe\""));
+
+        final BuildResult failed = createRunner("help", "-Pgtnh.auditEagerConfiguration=fail").buildAndFail();
+        assertTrue(
+            failed.getOutput()
+                .contains("task :eagerProbe by script build.gradle.kts"),
+            "The fail mode should fail the build with the same finding");
+    }
+
+    @Test
+    void eagerTaskRealization_byOtherPluginsOnlyReported() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE);
+
+        // RFG, java-library and the other plugins are applied from GTNHGradlePlugin, but aren't ours to fix
+        createRunner("help", "-Pgtnh.auditEagerConfiguration=fail").build();
+        final String report = Files.readString(
+            projectDir.toPath()
+                .resolve("build/gtnh/eager-configuration.json"));
+        assertFalse(
+            report.contains("\"owned\": true"),
+            "Only tasks realized by other plugins are expected:\n" + report);
+    }
+
+    @Test
+    void eagerResolution_isAttributedToTheScript() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE);
+        writeString(getBuildFile(), SIMPLE_BUILD_FILE + """
+            configurations.create("eagerProbe").files
+            """);
+
+        // The buildscript classpath is already resolved when the plugin applies and must not be hooked
+        final BuildResult result = createRunner("help", "-Pgtnh.detectEagerResolution=true").build();
+        assertTrue(
+            result.getOutput()
+                .contains("were resolved while evaluating the project"));
+        assertTrue(
+            result.getOutput()
+                .contains(":eagerProbe resolved in "),
+            "The eagerly resolved configuration should be reported");
+        assertTrue(
+            result.getOutput()
+                .contains("by script build.gradle.kts"),
+            "The resolution should be attributed to the build script");
+        final String report = Files.readString(
+            projectDir.toPath()
+                .resolve("build/gtnh/eager-resolution.json"));
+        assertTrue(report.contains("\"configuration\": \":eagerProbe\""));
+    }
+
+    @Test
+    void gtnhProperties_followGradlePrecedence() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE);
+        writeString(getBuildFile(), SIMPLE_BUILD_FILE + """
+            val gtnhConfig = extensions.getByType<com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin.GTNHExtension>()
+                .configuration
+            println("GTNH modId = " + gtnhConfig.modId + ", usesMixins = " + extra["usesMixins"])
+            """);
+        final Map<String, String> environment = new HashMap<>();
+        environment.put("VERSION", "1.0.0");
+
+        // gradle.properties, and the default value exported as an extra property
+        assertTrue(
+            createRunner("help").build()
+                .getOutput()
+                .contains("GTNH modId = mymodid, usesMixins = false"));
+
+        environment.put("ORG_GRADLE_PROJECT_modId", "envmodid");
+        assertTrue(
+            createRunner("help").withEnvironment(environment)
+                .build()
+                .getOutput()
+                .contains("GTNH modId = envmodid,"));
+
+        assertTrue(
+            createRunner("help", "-PmodId=climodid").withEnvironment(environment)
+                .build()
+                .getOutput()
+                .contains("GTNH modId = climodid,"));
+    }
+
+    @Test
+    void gtnhProperties_areNotInheritedFromParentExtraProperties() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE);
+        writeString(getSettingsFile(), SIMPLE_SETTINGS_FILE + """
+            include("sub")
+            """);
+        writeString(getBuildFile(), SIMPLE_BUILD_FILE + """
+            extra["usesMixins"] = "true"
+            """);
+        final File subDir = new File(projectDir, "sub");
+        Files.createDirectories(subDir.toPath());
+        writeString(new File(subDir, "build.gradle.kts"), SIMPLE_BUILD_FILE + """
+            val gtnhConfig = extensions.getByType<com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin.GTNHExtension>()
+                .configuration
+            println("GTNH sub usesMixins = " + gtnhConfig.usesMixins)
+            """);
+
+        // Reading the root project's extra properties from a subproject would break Isolated Projects
+        assertTrue(
+            createRunner("help").build()
+                .getOutput()
+                .contains("GTNH sub usesMixins = false"));
+    }
+
+    private BuildResult assertReusesConfigurationCache(GradleRunner runner) {
+        final BuildResult stored = runner.build();
+        assertTrue(
+            stored.getOutput()
+                .contains("Configuration cache entry stored"),
+            "The first build should store a configuration cache entry");
+        final BuildResult reused = runner.build();
+        assertTrue(
+            reused.getOutput()
+                .contains("Reusing configuration cache"),
+            "The second build should reuse the configuration cache entry");
+        return reused;
+    }
+
+    @Test
+    void gtnhTasks_reuseConfigurationCache() throws IOException {
+        setupProject(SIMPLE_PROPERTIES_FILE);
+
+        assertReusesConfigurationCache(createRunner("--configuration-cache", "faq", "propertiesHelp"));
+        assertReusesConfigurationCache(
+            createRunner(
+                "--configuration-cache",
+                "--dry-run",
+                "deobfParams",
+                "wrapper",
+                "updateBuildScript",
+                "runClient17",
+                "runServer17",
+                "publish"));
+    }
+
+    @Test
+    void printVersion_reusesConfigurationCache() throws IOException, InterruptedException {
+        setupProject(SIMPLE_PROPERTIES_FILE);
+        git("init", "-q");
+        git("add", "-A");
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "init");
+        git("tag", "1.2.3");
+
+        // printVersion only exists when the version comes from git
+        final Map<String, String> environment = new HashMap<>(System.getenv());
+        environment.remove("VERSION");
+        final BuildResult reused = assertReusesConfigurationCache(
+            createRunner("--configuration-cache", "printVersion").withEnvironment(environment));
+        assertTrue(
+            reused.getOutput()
+                .contains("1.2.3"),
+            "printVersion should print the git tag from the cached entry");
+    }
+
+    private void git(String... args) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        final Process process = new ProcessBuilder(command).directory(projectDir)
+            .inheritIO()
+            .start();
+        assertEquals(0, process.waitFor(), "git " + String.join(" ", args));
+    }
 }
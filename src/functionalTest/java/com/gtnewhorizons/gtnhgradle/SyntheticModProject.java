@@ -0,0 +1,140 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A generated mod project used to benchmark configuration time. Sources and resources are laid out like a real mod so
+ * that the source and resource tree walks done by GTNHGradle and its plugins see realistic input sizes.
+ *
+ * @param name          Scenario name, used as the baseline key prefix
+ * @param sourceFiles   Number of Java classes, spread over nested packages
+ * @param resourceFiles Number of asset files, spread over several asset directories
+ * @param mixins        Whether the mod uses mixins, with a mixin plugin and a mixins package
+ * @param shadow        Whether the mod uses shadowed dependencies
+ * @param jvmDowngrader Whether the mod uses {@code enableModernJavaSyntax=jvmDowngrader} instead of Jabel
+ */
+record SyntheticModProject(String name, int sourceFiles, int resourceFiles, boolean mixins, boolean shadow,
+    boolean jvmDowngrader) {
+
+    /** The benchmarked scenarios, by increasing size and module combination */
+    static final List<SyntheticModProject> SCENARIOS = List.of(
+        new SyntheticModProject("small", 20, 20, false, false, false),
+        new SyntheticModProject("medium", 300, 500, false, false, false),
+        new SyntheticModProject("mediumMixins", 300, 500, true, false, false),
+        new SyntheticModProject("mediumShadow", 300, 500, false, true, false),
+        new SyntheticModProject("mediumJvmDowngrader", 300, 500, false, false, true),
+        new SyntheticModProject("largeAll", 1500, 3000, true, true, true));
+
+    private static final String MOD_GROUP = "com.example.benchmark";
+    private static final String MOD_GROUP_PATH = "src/main/java/com/example/benchmark/";
+
+    private static final String SETTINGS_FILE = """
+        pluginManagement {
+            repositories {
+                maven {
+                    name = "GTNH Maven"
+                    url = uri("https://nexus.gtnewhorizons.com/repository/public/")
+                    mavenContent {
+                        includeGroup("com.gtnewhorizons")
+                        includeGroupByRegex("com\\\\.gtnewhorizons\\\\..+")
+                    }
+                }
+                gradlePluginPortal()
+                mavenCentral()
+                mavenLocal()
+            }
+        }
+        plugins {
+            id("com.gtnewhorizons.gtnhsettingsconvention")
+        }
+        """;
+
+    private static final String BUILD_FILE = """
+        plugins {
+            id("com.gtnewhorizons.gtnhconvention")
+        }
+        """;
+
+    /**
+     * Writes the project.
+     *
+     * @param dir The empty project directory
+     * @throws IOException Filesystem error
+     */
+    void generate(Path dir) throws IOException {
+        write(dir.resolve("settings.gradle.kts"), SETTINGS_FILE);
+        write(dir.resolve("build.gradle.kts"), BUILD_FILE);
+        write(dir.resolve("gradle.properties"), properties());
+        write(dir.resolve("dependencies.gradle"), "dependencies {\n}\n");
+
+        for (int i = 0; i < sourceFiles; i++) {
+            final String pkg = "content.pkg" + i % 25 + ".sub" + i % 4;
+            write(
+                dir.resolve(MOD_GROUP_PATH + pkg.replace('.', '/') + "/Generated" + i + ".java"),
+                "package " + MOD_GROUP
+                    + "."
+                    + pkg
+                    + ";\n\npublic class Generated"
+                    + i
+                    + " {\n\n    public int value(int p_70000_1_) {\n        return p_70000_1_ * "
+                    + i
+                    + ";\n    }\n}\n");
+        }
+        write(
+            dir.resolve(MOD_GROUP_PATH + "BenchmarkMod.java"),
+            "package " + MOD_GROUP + ";\n\npublic class BenchmarkMod {}\n");
+        if (mixins) {
+            write(
+                dir.resolve(MOD_GROUP_PATH + "mixinplugin/MixinPlugin.java"),
+                "package " + MOD_GROUP + ".mixinplugin;\n\npublic class MixinPlugin {}\n");
+            write(
+                dir.resolve(MOD_GROUP_PATH + "mixins/MixinExample.java"),
+                "package " + MOD_GROUP + ".mixins;\n\npublic class MixinExample {}\n");
+        }
+
+        final Path assets = dir.resolve("src/main/resources/assets/benchmarkmod");
+        final String[] kinds = { "textures/blocks", "textures/items", "models", "sounds" };
+        for (int i = 0; i < resourceFiles; i++) {
+            final Path file = assets.resolve(kinds[i % kinds.length] + "/asset" + i + ".bin");
+            Files.createDirectories(file.getParent());
+            Files.write(file, new byte[256 + i % 1024]);
+        }
+        write(assets.resolve("lang/en_US.lang"), "item.benchmark.name=Benchmark\n");
+        write(dir.resolve("src/main/resources/mcmod.info"), "[]\n");
+    }
+
+    private String properties() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("modName = Benchmark Mod\n")
+            .append("modId = benchmarkmod\n")
+            .append("modGroup = ")
+            .append(MOD_GROUP)
+            .append('\n')
+            .append("enableModernJavaSyntax = ")
+            .append(jvmDowngrader ? "jvmDowngrader" : "jabel")
+            .append('\n');
+        if (mixins) {
+            sb.append("usesMixins = true\n")
+                .append("mixinPlugin = mixinplugin.MixinPlugin\n")
+                .append("mixinsPackage = mixins\n");
+        }
+        if (shadow) {
+            sb.append("usesShadowedDependencies = true\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static void write(Path file, String contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents, StandardCharsets.UTF_8);
+    }
+}
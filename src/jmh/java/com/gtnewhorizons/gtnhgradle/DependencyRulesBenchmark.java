@@ -0,0 +1,227 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.artifacts.DependencySubstitutions;
+import org.gradle.api.artifacts.ExternalModuleDependency;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks configuring and resolving a project with many legacy configurations, like the ones RFG creates, with the
+ * substitutions, resolve rule and constraint of the mixin, toolchain and JVM Downgrader modules. Compares the
+ * {@code configurations.all} callbacks the modules used to install on every configuration with {@link DependencyRules}.
+ * The dependencies come from a generated file repository, so the substitutions and the constraint take part in
+ * resolution without network access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+// ProjectBuilder defines classes in the JDK class loaders
+@Fork(value = 1, jvmArgsAppend = { "--add-opens", "java.base/java.lang=ALL-UNNAMED" })
+public class DependencyRulesBenchmark {
+
+    private static final List<String> OLD_MIXINS = List.of(
+        "com.gtnewhorizon:gtnhmixins",
+        "com.github.GTNewHorizons:Mixingasm",
+        "com.github.GTNewHorizons:SpongePoweredMixin",
+        "com.github.GTNewHorizons:SpongeMixins");
+    private static final String UNIMIXINS = "io.github.legacymoddingmc:unimixins:0.1.17";
+    private static final String GTNHLIB = "com.github.GTNewHorizons:GTNHLib:0.6.0";
+    private static final String LIBRARY = "com.example:library:1.0";
+    /** The library depends on an older GTNHLib, which the constraint upgrades */
+    private static final String OLD_GTNHLIB = "com.github.GTNewHorizons:GTNHLib:0.5.0";
+    private static final byte[] EMPTY_JAR = { 'P', 'K', 5, 6, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+    /** Number of legacy configurations, a large modpack-style mod has a few hundred */
+    @Param({ "50", "300" })
+    public int configurations;
+
+    /** Every n-th configuration stays resolvable and is resolved, the others only declare dependencies */
+    @Param({ "3" })
+    public int resolvedEvery;
+
+    private Path directory;
+    private Project project;
+
+    /**
+     * Creates the working directory and the file repository.
+     *
+     * @throws IOException Filesystem error
+     */
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        directory = Files.createTempDirectory("gtnh-jmh-deps");
+        final Path repository = directory.resolve("repository");
+        publish(repository, LIBRARY, null, OLD_GTNHLIB);
+        publish(repository, OLD_GTNHLIB, null, null);
+        publish(repository, GTNHLIB, null, null);
+        publish(repository, UNIMIXINS, "dev", null);
+    }
+
+    /** Creates a fresh project, as the benchmarked methods add configurations to it */
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        project = ProjectBuilder.builder()
+            .withProjectDir(
+                directory.resolve("project")
+                    .toFile())
+            .withGradleUserHomeDir(
+                directory.resolve("gradle-home")
+                    .toFile())
+            .build();
+        project.getRepositories()
+            .maven(
+                repo -> repo.setUrl(
+                    directory.resolve("repository")
+                        .toUri()));
+    }
+
+    /**
+     * Deletes the working directory.
+     *
+     * @throws IOException Filesystem error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (final Path path : paths.sorted(Comparator.reverseOrder())
+                .toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /** @return The number of resolved files */
+    @Benchmark
+    public int perConfigurationCallbacks() {
+        final ConfigurationContainer cfg = project.getConfigurations();
+        final DependencyHandler deps = project.getDependencies();
+        cfg.all(c -> {
+            final DependencySubstitutions ds = c.getResolutionStrategy()
+                .getDependencySubstitution();
+            for (final String oldMixins : OLD_MIXINS) {
+                ds.substitute(ds.module(oldMixins))
+                    .using(ds.module(UNIMIXINS))
+                    .withClassifier("dev")
+                    .because("Unimixins replaces other mixin mods");
+            }
+            c.getDependencies()
+                .configureEach(dep -> {
+                    if (dep instanceof ExternalModuleDependency && "net.industrial-craft".equals(dep.getGroup())) {
+                        throw new IllegalStateException("Not declared by the benchmark");
+                    }
+                });
+            c.getResolutionStrategy()
+                .eachDependency(details -> {});
+            if (c.isCanBeDeclared()) {
+                deps.getConstraints()
+                    .add(c.getName(), GTNHLIB, constraint -> constraint.because("Benchmark"));
+            }
+        });
+        return resolve(createConfigurations(cfg, deps));
+    }
+
+    /** @return The number of resolved files */
+    @Benchmark
+    public int dependencyRules() {
+        final ConfigurationContainer cfg = project.getConfigurations();
+        final DependencyHandler deps = project.getDependencies();
+        final DependencyRules rules = new DependencyRules(cfg, deps);
+        for (final String oldMixins : OLD_MIXINS) {
+            rules.substitute(oldMixins, UNIMIXINS, "dev", "Unimixins replaces other mixin mods");
+        }
+        rules.eachDependency(c -> true, details -> {});
+        rules.constraint(GTNHLIB, "Benchmark");
+        return resolve(createConfigurations(cfg, deps));
+    }
+
+    /**
+     * Creates legacy configurations, which are resolvable until their roles are set after creation, and declares the
+     * library and an old mixin module on each.
+     *
+     * @return The configurations that stay resolvable
+     */
+    private List<Configuration> createConfigurations(ConfigurationContainer cfg, DependencyHandler deps) {
+        final List<Configuration> resolvable = new ArrayList<>();
+        for (int i = 0; i < configurations; i++) {
+            final Configuration configuration = cfg.create("bench" + i);
+            deps.add(configuration.getName(), LIBRARY);
+            deps.add(configuration.getName(), OLD_MIXINS.get(i % OLD_MIXINS.size()) + ":1.0");
+            if (i % resolvedEvery == 0) {
+                resolvable.add(configuration);
+            } else {
+                configuration.setCanBeResolved(false);
+            }
+        }
+        return resolvable;
+    }
+
+    private static int resolve(List<Configuration> resolvable) {
+        int files = 0;
+        for (final Configuration configuration : resolvable) {
+            files += configuration.getIncoming()
+                .getFiles()
+                .getFiles()
+                .size();
+        }
+        return files;
+    }
+
+    /** Writes a module with an empty jar and a POM, optionally depending on another module */
+    private static void publish(Path repository, String notation, String classifier, String dependency)
+        throws IOException {
+        final String[] gav = notation.split(":");
+        final Path dir = repository.resolve(gav[0].replace('.', '/') + "/" + gav[1] + "/" + gav[2]);
+        Files.createDirectories(dir);
+        final String base = gav[1] + "-" + gav[2];
+        Files.write(dir.resolve(base + (classifier == null ? "" : "-" + classifier) + ".jar"), EMPTY_JAR);
+        final StringBuilder pom = new StringBuilder();
+        pom.append("<project>\n  <modelVersion>4.0.0</modelVersion>\n")
+            .append("  <groupId>")
+            .append(gav[0])
+            .append("</groupId>\n  <artifactId>")
+            .append(gav[1])
+            .append("</artifactId>\n  <version>")
+            .append(gav[2])
+            .append("</version>\n");
+        if (dependency != null) {
+            final String[] dep = dependency.split(":");
+            pom.append("  <dependencies>\n    <dependency>\n      <groupId>")
+                .append(dep[0])
+                .append("</groupId>\n      <artifactId>")
+                .append(dep[1])
+                .append("</artifactId>\n      <version>")
+                .append(dep[2])
+                .append("</version>\n    </dependency>\n  </dependencies>\n");
+        }
+        pom.append("</project>\n");
+        Files.writeString(dir.resolve(base + ".pom"), pom.toString(), StandardCharsets.UTF_8);
+    }
+}
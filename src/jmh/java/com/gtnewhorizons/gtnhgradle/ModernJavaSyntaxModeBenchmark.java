@@ -0,0 +1,34 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks {@link ModernJavaSyntaxMode#fromString(String)} for every accepted spelling */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModernJavaSyntaxModeBenchmark {
+
+    /** The property value to parse */
+    @Param({ "", "false", "true", "jabel", "jvmDowngrader", "modern" })
+    public String value;
+
+    /** @return The parsed mode */
+    @Benchmark
+    public ModernJavaSyntaxMode fromString() {
+        return ModernJavaSyntaxMode.fromString(value);
+    }
+}
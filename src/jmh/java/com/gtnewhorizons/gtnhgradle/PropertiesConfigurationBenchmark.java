@@ -0,0 +1,100 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the gradle.properties handling run on every configuration ({@code initFromProperties}) and by
+ * {@code updateBuildScript} ({@code generateUpdatedProperties}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertiesConfigurationBenchmark {
+
+    private final Map<String, String> properties = new HashMap<>();
+    private Path settingsFile;
+
+    /**
+     * Collects every property with its default value, plus some non-GTNH ones, like a fully populated
+     * gradle.properties.
+     *
+     * @throws IOException Filesystem error
+     */
+    @Setup
+    public void setup() throws IOException {
+        properties.put("modName", "Benchmark Mod");
+        properties.put("modId", "benchmarkmod");
+        properties.put("modGroup", "com.example.benchmark");
+        final Map<String, String> defaults = new HashMap<>();
+        new PropertiesConfiguration().initFromProperties(properties, (key, value) -> {
+            if (value != null) {
+                defaults.put(key, value.toString());
+            }
+        });
+        properties.putAll(defaults);
+        for (int i = 0; i < 10; i++) {
+            properties.put("custom.property" + i, "some value = " + i);
+        }
+        settingsFile = Files.createTempFile("gtnh-jmh-settings", ".gradle");
+        Files.writeString(settingsFile, """
+            pluginManagement {
+                repositories {
+                    maven { url 'https://nexus.gtnewhorizons.com/repository/public/' }
+                    gradlePluginPortal()
+                }
+            }
+            plugins {
+                id 'com.gtnewhorizons.gtnhsettingsconvention' version '1.0.0'
+            }
+            """, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deletes the settings file.
+     *
+     * @throws IOException Filesystem error
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(settingsFile);
+    }
+
+    /** @return The parsed configuration */
+    @Benchmark
+    public PropertiesConfiguration initFromProperties() {
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        config.initFromProperties(properties, null);
+        return config;
+    }
+
+    /**
+     * @return The regenerated gradle.properties contents
+     * @throws Throwable Propagated from the benchmarked method
+     */
+    @Benchmark
+    public String generateUpdatedProperties() throws Throwable {
+        // The method consumes the map it is given
+        return new PropertiesConfiguration().generateUpdatedProperties(settingsFile, new HashMap<>(properties));
+    }
+}
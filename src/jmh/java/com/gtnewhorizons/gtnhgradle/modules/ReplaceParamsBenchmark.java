@@ -0,0 +1,130 @@
+package com.gtnewhorizons.gtnhgradle.modules;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks {@link UtilityModule#replaceParams(Logger, File, Map)} on a generated source tree shaped like a
+ * decompiled mod: nested packages of classes using SRG parameter names, against a params.csv sized mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReplaceParamsBenchmark {
+
+    private static final Logger LOGGER = Logging.getLogger(ReplaceParamsBenchmark.class);
+
+    /** Number of source files in the tree */
+    @Param({ "50", "200" })
+    public int files;
+
+    /** Number of SRG to MCP mappings */
+    @Param({ "1000", "5000" })
+    public int mappings;
+
+    private final Map<String, String> params = new HashMap<>();
+    private final Map<Path, String> originals = new HashMap<>();
+    private Path root;
+
+    /**
+     * Generates the mappings and the source tree.
+     *
+     * @throws IOException Filesystem error
+     */
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        for (int i = 0; i < mappings; i++) {
+            params.put(String.format(Locale.ROOT, "p_%d_%d_", 70000 + i / 2, i % 2 + 1), "param" + i);
+        }
+        root = Files.createTempDirectory("gtnh-jmh-params");
+        for (int f = 0; f < files; f++) {
+            final Path file = root.resolve("com/example/mod/pkg" + f % 10 + "/Class" + f + ".java");
+            final StringBuilder sb = new StringBuilder();
+            sb.append("package com.example.mod.pkg")
+                .append(f % 10)
+                .append(";\n\npublic class Class")
+                .append(f)
+                .append(" {\n");
+            for (int m = 0; m < 20; m++) {
+                // Some parameters have mappings and some don't, as in real mods
+                final int srg = 70000 + (f * 20 + m) * 3 % mappings;
+                sb.append(
+                    String.format(
+                        Locale.ROOT,
+                        "\n    public int method%d(int p_%d_1_, String p_%d_2_) {\n"
+                            + "        return p_%d_1_ + p_%d_2_.length();\n    }\n",
+                        m,
+                        srg,
+                        srg + 1,
+                        srg,
+                        srg + 1));
+            }
+            sb.append("}\n");
+            originals.put(file, sb.toString());
+        }
+    }
+
+    /**
+     * Restores the unprocessed tree, as the benchmarked method rewrites it in place.
+     *
+     * @throws IOException Filesystem error
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException {
+        for (final Map.Entry<Path, String> entry : originals.entrySet()) {
+            Files.createDirectories(
+                entry.getKey()
+                    .getParent());
+            Files.writeString(entry.getKey(), entry.getValue(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Deletes the tree.
+     *
+     * @throws IOException Filesystem error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (final Path path : paths.sorted(Comparator.reverseOrder())
+                .toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /** @return The number of modified files */
+    @Benchmark
+    public int replaceParams() {
+        return UtilityModule.replaceParams(LOGGER, root.toFile(), params);
+    }
+}
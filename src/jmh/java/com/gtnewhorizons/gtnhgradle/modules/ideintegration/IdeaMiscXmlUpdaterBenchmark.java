@@ -0,0 +1,111 @@
+package com.gtnewhorizons.gtnhgradle.modules.ideintegration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/** Benchmarks {@link IdeaMiscXmlUpdater#mergeOrCreate(Path)}, both merging into an existing file and creating one */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdeaMiscXmlUpdaterBenchmark {
+
+    /** A misc.xml as written by IntelliJ, with some user entry points and without the GTNH output directory */
+    private static final String EXISTING_MISC_XML = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <project version="4">
+          <component name="EntryPointsManager">
+            <list size="3">
+              <item index="0" class="java.lang.String" itemvalue="cpw.mods.fml.common.Mod.EventHandler" />
+              <item index="1" class="java.lang.String" itemvalue="com.example.mod.api.Hook" />
+              <item index="2" class="java.lang.String" itemvalue="com.example.mod.api.Callback" />
+            </list>
+          </component>
+          <component name="ExternalStorageConfigurationManager" enabled="true" />
+          <component name="FrameworkDetectionExcludesConfiguration">
+            <file type="web" url="file://$PROJECT_DIR$" />
+          </component>
+          <component name="ProjectRootManager" version="2" languageLevel="JDK_1_8" project-jdk-name="21" />
+          <component name="SuppressionsComponent">
+            <option name="suppComments" value="[]" />
+          </component>
+        </project>
+        """;
+
+    private Path directory;
+    private Path existing;
+    private Path missing;
+
+    /**
+     * Creates the working directory.
+     *
+     * @throws IOException Filesystem error
+     */
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        directory = Files.createTempDirectory("gtnh-jmh-idea");
+        existing = directory.resolve("existing.xml");
+        missing = directory.resolve("missing.xml");
+    }
+
+    /**
+     * Restores the unmerged file and removes the created one, as the benchmarked method writes them.
+     *
+     * @throws IOException Filesystem error
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException {
+        Files.writeString(existing, EXISTING_MISC_XML, StandardCharsets.UTF_8);
+        Files.deleteIfExists(missing);
+    }
+
+    /**
+     * Deletes the working directory.
+     *
+     * @throws IOException Filesystem error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(existing);
+        Files.deleteIfExists(missing);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Merges the GTNH defaults into an existing file.
+     *
+     * @throws Exception Propagated from the benchmarked method
+     */
+    @Benchmark
+    public void merge() throws Exception {
+        IdeaMiscXmlUpdater.mergeOrCreate(existing);
+    }
+
+    /**
+     * Writes the GTNH defaults to a new file.
+     *
+     * @throws Exception Propagated from the benchmarked method
+     */
+    @Benchmark
+    public void create() throws Exception {
+        IdeaMiscXmlUpdater.mergeOrCreate(missing);
+    }
+}
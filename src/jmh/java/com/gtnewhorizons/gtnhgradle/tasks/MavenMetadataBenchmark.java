@@ -0,0 +1,68 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the maven-metadata.xml parsing of {@link UpdateDependenciesTask}, which runs once per GTNH dependency of
+ * the project.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenMetadataBenchmark {
+
+    /** Number of published versions, long-lived GTNH mods have several hundred */
+    @Param({ "20", "500" })
+    public int versions;
+
+    private byte[] metadata;
+
+    /** Generates the metadata document */
+    @Setup
+    public void setup() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>\n")
+            .append("  <groupId>com.github.GTNewHorizons</groupId>\n  <artifactId>GT5-Unofficial</artifactId>\n")
+            .append("  <versioning>\n    <versions>\n");
+        for (int i = 0; i < versions; i++) {
+            sb.append(
+                String.format(
+                    Locale.ROOT,
+                    "      <version>5.09.%d.%d%s</version>\n",
+                    i / 10,
+                    i % 10,
+                    i % 7 == 0 ? "-pre" : ""));
+        }
+        sb.append("    </versions>\n    <lastUpdated>20260101000000</lastUpdated>\n  </versioning>\n</metadata>\n");
+        metadata = sb.toString()
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The parsed versions
+     * @throws Exception Propagated from the benchmarked method
+     */
+    @Benchmark
+    public List<String> parseVersions() throws Exception {
+        return UpdateDependenciesTask.parseVersions(new ByteArrayInputStream(metadata));
+    }
+}
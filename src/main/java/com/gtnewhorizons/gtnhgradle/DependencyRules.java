@@ -0,0 +1,138 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import org.gradle.api.Action;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.DependencyResolveDetails;
+import org.gradle.api.artifacts.DependencySubstitutions;
+import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.specs.Spec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dependency substitutions, resolve rules and constraints shared by the modules of a project. Instead of every module
+ * installing its own rules on every configuration, a single hook runs when a configuration is about to be resolved, and
+ * only then gives it the registered substitutions as plain module substitution rules, one resolve rule which looks the
+ * registered rules up for each dependency, and the registered constraints. Deciding at resolution rather than when a
+ * configuration is created means configurations whose roles are only set later, like the legacy ones created by RFG,
+ * are handled by what they end up being, and consumable configurations never receive the constraints.
+ */
+public final class DependencyRules {
+
+    /**
+     * A module substitution.
+     *
+     * @param target     Module notation of the replacement
+     * @param classifier Classifier of the replacement artifact, or null to select the artifact without classifier
+     * @param because    Reason shown in dependency insight reports
+     */
+    public record Substitution(@NotNull String target, @Nullable String classifier, @NotNull String because) {}
+
+    private record ResolveRule(Spec<Configuration> appliesTo, Action<DependencyResolveDetails> rule) {}
+
+    private final ConfigurationContainer configurations;
+    private final DependencyHandler dependencies;
+    /** Keyed by group:name for any version, or group:name:version */
+    private final Map<String, Substitution> substitutions = new LinkedHashMap<>();
+    private final List<ResolveRule> resolveRules = new ArrayList<>();
+    private final List<DependencyConstraint> constraints = new ArrayList<>();
+    private boolean installed = false;
+
+    /**
+     * @param configurations The project's configurations
+     * @param dependencies   The project's dependency handler
+     */
+    public DependencyRules(@NotNull ConfigurationContainer configurations, @NotNull DependencyHandler dependencies) {
+        this.configurations = configurations;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Replaces a module in every configuration resolved from now on.
+     *
+     * @param module     The replaced module, group:name for any version or group:name:version
+     * @param target     Module notation of the replacement
+     * @param classifier Classifier of the replacement artifact, or null to select the artifact without classifier
+     * @param because    Reason shown in dependency insight reports
+     */
+    public void substitute(@NotNull String module, @NotNull String target, @Nullable String classifier,
+        @NotNull String because) {
+        substitutions.put(module, new Substitution(target, classifier, because));
+        install();
+    }
+
+    /**
+     * Adds a rule run for each dependency of the matching resolved configurations.
+     *
+     * @param appliesTo Selects the configurations, evaluated when they are resolved
+     * @param rule      The rule
+     */
+    public void eachDependency(@NotNull Spec<Configuration> appliesTo, @NotNull Action<DependencyResolveDetails> rule) {
+        resolveRules.add(new ResolveRule(appliesTo, rule));
+        install();
+    }
+
+    /**
+     * Adds a dependency constraint to every configuration resolved from now on.
+     *
+     * @param notation The constraint notation
+     * @param because  Reason shown in dependency insight reports
+     */
+    public void constraint(@NotNull String notation, @NotNull String because) {
+        constraints.add(
+            dependencies.getConstraints()
+                .create(notation, c -> c.because(because)));
+        install();
+    }
+
+    private void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        // Only registers a listener, the rules are added to the configurations that actually get resolved
+        configurations.configureEach(
+            c -> c.getIncoming()
+                .beforeResolve(_incoming -> beforeResolve(c)));
+    }
+
+    private void beforeResolve(Configuration configuration) {
+        substitutions.forEach((module, substitution) -> addSubstitution(configuration, module, substitution));
+        if (!resolveRules.isEmpty()) {
+            configuration.getResolutionStrategy()
+                .eachDependency(details -> applyResolveRules(configuration, details));
+        }
+        configuration.getDependencyConstraints()
+            .addAll(constraints);
+    }
+
+    // https://docs.gradle.org/8.0.2/userguide/resolution_rules.html#sec:substitution_with_classifier
+    private static void addSubstitution(Configuration configuration, String module, Substitution substitution) {
+        final DependencySubstitutions ds = configuration.getResolutionStrategy()
+            .getDependencySubstitution();
+        final DependencySubstitutions.Substitution rule = ds.substitute(ds.module(module));
+        final DependencySubstitutions.Substitution withArtifact = substitution.classifier() == null
+            ? rule.using(ds.module(substitution.target()))
+                .withoutClassifier()
+            : rule.using(ds.module(substitution.target()))
+                .withClassifier(substitution.classifier());
+        withArtifact.because(substitution.because());
+    }
+
+    private void applyResolveRules(Configuration configuration, DependencyResolveDetails details) {
+        for (final ResolveRule rule : resolveRules) {
+            if (rule.appliesTo()
+                .isSatisfiedBy(configuration)) {
+                rule.rule()
+                    .execute(details);
+            }
+        }
+    }
+}
@@ -4,6 +4,13 @@
 package com.gtnewhorizons.gtnhgradle;
 
 import com.diffplug.blowdryer.Blowdryer;
+import com.gtnewhorizons.gtnhgradle.diagnostics.BuildMetricsService;
+import com.gtnewhorizons.gtnhgradle.diagnostics.CacheSnapshotService;
+import com.gtnewhorizons.gtnhgradle.diagnostics.ConfigurationAudit;
+import com.gtnewhorizons.gtnhgradle.diagnostics.ConfigurationProfiler;
+import com.gtnewhorizons.gtnhgradle.diagnostics.DaemonMemoryService;
+import com.gtnewhorizons.gtnhgradle.diagnostics.EagerResolutionDetector;
+import com.gtnewhorizons.gtnhgradle.diagnostics.NetworkAuditService;
 import com.gtnewhorizons.retrofuturagradle.shadow.com.google.common.collect.ImmutableMap;
 import com.gtnewhorizons.gtnhgradle.modules.AccessTransformerModule;
 import com.gtnewhorizons.gtnhgradle.modules.CodeStyleModule;
@@ -37,14 +44,17 @@ import org.gradle.api.plugins.JavaLibraryPlugin;
 import org.gradle.api.plugins.PluginManager;
 import org.gradle.api.provider.ProviderFactory;
 import org.gradle.api.publish.maven.plugins.MavenPublishPlugin;
+import org.gradle.build.event.BuildEventsListenerRegistry;
 import org.gradle.jvm.toolchain.JavaToolchainService;
 import org.gradle.process.ExecOperations;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * The main GTNH buildscript plugin object. You can access it in the buildscript as {@code gtnhGradle} and use it to
@@ -70,18 +80,28 @@ public class GTNHGradlePlugin implements Plugin<Project> {
         plugins.apply(JavaLibraryPlugin.class);
         plugins.apply(MavenPublishPlugin.class);
         plugins.apply(DownloadTaskPlugin.class);
-        plugins.apply(UserDevPlugin.class); // RFG
 
         // Create the gtnhGradle extension as a Gradle DSL-extensible object
         final GTNHExtension gtnh = project.getObjects()
             .newInstance(GTNHExtension.class, project);
         project.getExtensions()
             .add(GTNHExtension.class, PROJECT_EXT_NAME, gtnh);
+        if (gtnh.lightweightModules == null) {
+            plugins.apply(UserDevPlugin.class); // RFG
+        }
         if (!gtnh.configuration.blowdryerTag.isEmpty()) {
             // Make blowdryer available in "apply from:" scripts
             project.getExtensions()
                 .add(Class.class, "Blowdryer", Blowdryer.class);
         }
+        if (gtnh.configuration.buildMetrics || gtnh.configuration.traceBuild) {
+            BuildMetricsService.register(project, gtnh);
+        }
+        if (gtnh.configuration.auditNetwork) {
+            NetworkAuditService.register(project, gtnh);
+        }
+        CacheSnapshotService.register(project, gtnh);
+        DaemonMemoryService.register(project, gtnh);
     }
 
     /**
@@ -96,6 +116,21 @@ public class GTNHGradlePlugin implements Plugin<Project> {
         /** Parsed properties associated with this project */
         public @NotNull PropertiesConfiguration configuration;
 
+        /** Records the configuration-time cost of each applied module */
+        public final @NotNull ConfigurationProfiler profiler;
+
+        /** Records eager task realization during configuration, null unless gtnh.auditEagerConfiguration is set */
+        public final @Nullable ConfigurationAudit audit;
+
+        /** Reports configurations resolved while evaluating the project, if gtnh.detectEagerResolution is set */
+        public final @NotNull EagerResolutionDetector resolutionDetector;
+
+        /** The only modules applied by {@link #applyAllModules}, or null unless the requested tasks are lightweight */
+        public final @Nullable Set<Class<? extends GTNHModule>> lightweightModules;
+
+        /** Dependency substitutions, resolve rules and constraints added by the modules */
+        public final @NotNull DependencyRules dependencyRules;
+
         /** A list of all available modules to activate */
         public static final List<Class<? extends GTNHModule>> ALL_MODULES = List.of( //
             GitVersionModule.class,
@@ -140,7 +175,27 @@ public class GTNHGradlePlugin implements Plugin<Project> {
         @ApiStatus.Internal
         public GTNHExtension(final Project project) {
             logger = Logging.getLogger(GTNHGradlePlugin.class);
+            dependencyRules = new DependencyRules(project.getConfigurations(), project.getDependencies());
             configuration = PropertiesConfiguration.GradleUtils.makePropertiesFrom(project);
+            profiler = new ConfigurationProfiler(
+                project,
+                logger,
+                configuration.profileConfiguration,
+                configuration.traceBuild || (configuration.buildMetrics && configuration.perfHistory));
+            final ConfigurationAudit.Mode auditMode = ConfigurationAudit.Mode
+                .fromString(configuration.auditEagerConfiguration);
+            audit = auditMode == ConfigurationAudit.Mode.OFF ? null
+                : new ConfigurationAudit(project, logger, profiler, auditMode);
+            resolutionDetector = new EagerResolutionDetector(
+                project,
+                logger,
+                profiler,
+                configuration.detectEagerResolution);
+            lightweightModules = LightweightMode.fromString(configuration.lightweight)
+                .modulesFor(
+                    project.getGradle()
+                        .getStartParameter()
+                        .getTaskNames());
         }
 
         /**
@@ -164,8 +219,18 @@ public class GTNHGradlePlugin implements Plugin<Project> {
          * @param project The project to activate the modules on
          */
         public void applyAllModules(final Project project) {
+            if (lightweightModules != null) {
+                logger.lifecycle(
+                    "GTNH lightweight configuration, only applying {}",
+                    ALL_MODULES.stream()
+                        .filter(lightweightModules::contains)
+                        .map(Class::getSimpleName)
+                        .toList());
+            }
             for (final Class<? extends GTNHModule> moduleClass : ALL_MODULES) {
-                GTNHModule.applyIfEnabled(moduleClass, this, project);
+                if (lightweightModules == null || lightweightModules.contains(moduleClass)) {
+                    GTNHModule.applyIfEnabled(moduleClass, this, project);
+                }
             }
         }
 
@@ -196,5 +261,9 @@ public class GTNHGradlePlugin implements Plugin<Project> {
         /** @return Gradle-provided injected service */
         @Inject
         public abstract @NotNull JavaToolchainService getToolchainService();
+
+        /** @return Gradle-provided injected service */
+        @Inject
+        public abstract @NotNull BuildEventsListenerRegistry getBuildEventsListenerRegistry();
     }
 }
@@ -31,6 +31,7 @@ public interface GTNHModule {
      * was enabled.
      * Also registers another ext property "gtnhModuleClassName" set to the instance of the constructed module
      * (regardless of enabled status).
+     * The time spent in the module's apply function is recorded by {@link GTNHGradlePlugin.GTNHExtension#profiler}.
      *
      * @param moduleClass The module class to enable.
      * @param gtnh        The GTNH extension providing access to various gradle services and configuration
@@ -56,7 +57,7 @@ public interface GTNHModule {
         final boolean enabled = instance.isEnabled(gtnh.configuration);
         if (enabled) {
             try {
-                instance.apply(gtnh, project);
+                gtnh.profiler.profile(name, () -> instance.apply(gtnh, project));
             } catch (Throwable t) {
                 if (t instanceof RuntimeException) {
                     throw (RuntimeException) t;
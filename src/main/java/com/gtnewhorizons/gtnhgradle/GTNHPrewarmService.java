@@ -0,0 +1,169 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import com.gtnewhorizons.gtnhgradle.modules.GitDirtyValueSource;
+import com.gtnewhorizons.gtnhgradle.modules.GitVersionValueSource;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.services.BuildServiceRegistration;
+import org.gradle.process.ExecOperations;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Starts the git lookups of {@link com.gtnewhorizons.gtnhgradle.modules.GitVersionModule} on a small thread pool as
+ * soon as the settings are evaluated, so that they overlap with Gradle compiling the build scripts and resolving
+ * plugins: the repository fingerprint of {@link GitVersionValueSource} and the native dirty check of
+ * {@link GitDirtyValueSource}. The value sources consume the futures when they describe the same repository and
+ * paths, and run the lookups themselves otherwise, including when only the project plugin is applied or a prewarmed
+ * lookup failed.
+ * The update check of {@link com.gtnewhorizons.gtnhgradle.modules.UpdaterModule} is not prewarmed, as Gradle doesn't
+ * allow dependency resolution from threads it doesn't manage.
+ */
+public abstract class GTNHPrewarmService implements BuildService<GTNHPrewarmService.Parameters>, AutoCloseable {
+
+    /** Name of the shared service registration */
+    public static final String SERVICE_NAME = "gtnhPrewarm";
+
+    /** Service parameters */
+    public interface Parameters extends BuildServiceParameters {
+
+        /** @return The root project directory */
+        Property<File> getRootDirectory();
+
+        /** @return Paths relative to the root directory excluded from the dirty check */
+        ListProperty<String> getExcludedPaths();
+    }
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+        final Thread thread = new Thread(r, "GTNH prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Path rootDirectory;
+    private final @Nullable Path gitDir;
+    private final List<String> excludedPaths;
+    private final @Nullable CompletableFuture<String> fingerprint;
+    private final @Nullable CompletableFuture<Boolean> dirty;
+
+    /** @return Gradle-provided */
+    @Inject
+    public abstract ExecOperations getExecOperations();
+
+    /** For dependency injection */
+    public GTNHPrewarmService() {
+        rootDirectory = getParameters().getRootDirectory()
+            .get()
+            .toPath();
+        excludedPaths = getParameters().getExcludedPaths()
+            .get();
+        gitDir = GitVersionValueSource.findGitDir(rootDirectory);
+        if (gitDir == null) {
+            fingerprint = null;
+            dirty = null;
+            return;
+        }
+        fingerprint = CompletableFuture.supplyAsync(() -> {
+            try {
+                return GitVersionValueSource.fingerprint(gitDir);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+        dirty = CompletableFuture.supplyAsync(
+            () -> GitDirtyValueSource.isDirty(getExecOperations(), rootDirectory.toFile(), excludedPaths),
+            executor);
+    }
+
+    /**
+     * Registers the shared service and starts the lookups.
+     *
+     * @param gradle        The current build
+     * @param rootDirectory The root project directory
+     * @param excludedPaths Paths relative to the root directory excluded from the dirty check
+     */
+    public static void start(final @NotNull Gradle gradle, final @NotNull File rootDirectory,
+        final @NotNull List<String> excludedPaths) {
+        gradle.getSharedServices()
+            .registerIfAbsent(SERVICE_NAME, GTNHPrewarmService.class, spec -> {
+                spec.getParameters()
+                    .getRootDirectory()
+                    .set(rootDirectory);
+                spec.getParameters()
+                    .getExcludedPaths()
+                    .set(excludedPaths);
+            })
+            .get();
+    }
+
+    /**
+     * @param gradle The current build
+     * @return The service, or null if the settings plugin didn't start one
+     */
+    @SuppressWarnings("unchecked")
+    public static @Nullable Provider<GTNHPrewarmService> find(final @NotNull Gradle gradle) {
+        final BuildServiceRegistration<?, ?> registration = gradle.getSharedServices()
+            .getRegistrations()
+            .findByName(SERVICE_NAME);
+        return registration == null ? null : (Provider<GTNHPrewarmService>) registration.getService();
+    }
+
+    /**
+     * @param gitDir The git directory of the project being configured
+     * @return The prewarmed fingerprint of the repository, null meaning the caller must compute it
+     */
+    public @Nullable CompletableFuture<String> fingerprint(final @NotNull Path gitDir) {
+        return gitDir.equals(this.gitDir) ? fingerprint : null;
+    }
+
+    /**
+     * @param projectDirectory The directory of the project being configured
+     * @param excludedPaths    The paths excluded from the dirty check of the project
+     * @return The prewarmed dirty state, null meaning the caller must check itself
+     */
+    public @Nullable CompletableFuture<Boolean> dirty(final @NotNull Path projectDirectory,
+        final @NotNull List<String> excludedPaths) {
+        return rootDirectory.equals(projectDirectory) && this.excludedPaths.equals(excludedPaths) ? dirty : null;
+    }
+
+    /**
+     * Waits for a prewarmed result, falling back to computing it on the calling thread.
+     *
+     * @param prewarmed The prewarmed result, or null if there is none
+     * @param serial    Computes the result when there is no prewarmed one or it failed
+     * @param <T>       The result type
+     * @return The result, which may be null when the lookup itself returns null
+     */
+    public static <T> @Nullable T join(final @Nullable CompletableFuture<T> prewarmed,
+        final @NotNull Supplier<T> serial) {
+        if (prewarmed != null) {
+            try {
+                return prewarmed.join();
+            } catch (CompletionException | CancellationException _) {
+                // Rerun on the calling thread, so that a real failure is reported from there
+            }
+        }
+        return serial.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import org.gradle.api.Project;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Build-wide holder of the GTNH properties, read once per build by whichever of the settings or project plugins comes
+ * first. Projects only layer their own extra properties on top, instead of materializing
+ * {@link Project#getProperties()}, so values set on the {@code ext} of a parent project are not inherited.
+ * <p>
+ * Every key declared in {@link PropertiesConfiguration} is read on its own through
+ * {@link ProviderFactory#gradleProperty(String)}, so that the configuration cache only fingerprints the properties
+ * GTNHGradle consumes, and changing an unrelated {@code -P} flag or gradle.properties entry keeps it valid.
+ */
+public abstract class GTNHPropertiesService implements BuildService<GTNHPropertiesService.Parameters> {
+
+    /** Name of the shared service registration */
+    public static final String SERVICE_NAME = "gtnhProperties";
+
+    /** Service parameters */
+    public interface Parameters extends BuildServiceParameters {
+
+        /** @return Values of the GTNH properties set for the build */
+        MapProperty<String, String> getProperties();
+    }
+
+    private PropertiesConfiguration base;
+
+    /** For dependency injection */
+    public GTNHPropertiesService() {}
+
+    /**
+     * Registers the shared service, reading the build-wide properties if this is the first registration.
+     *
+     * @param gradle    The current build
+     * @param providers Provider factory of the settings or of the registering project itself, never one of another
+     *                  project, so that no project reaches into the state of another
+     * @return The service
+     */
+    public static @NotNull Provider<GTNHPropertiesService> register(final @NotNull Gradle gradle,
+        final @NotNull ProviderFactory providers) {
+        return gradle.getSharedServices()
+            .registerIfAbsent(
+                SERVICE_NAME,
+                GTNHPropertiesService.class,
+                spec -> spec.getParameters()
+                    .getProperties()
+                    .set(read(providers)));
+    }
+
+    /**
+     * @return The configuration of the root project, ignoring extra properties. Shared, callers must not modify it.
+     * @throws IllegalArgumentException If a required property is missing
+     */
+    public synchronized @NotNull PropertiesConfiguration base() {
+        if (base == null) {
+            final PropertiesConfiguration config = new PropertiesConfiguration();
+            config.initFromProperties(
+                getParameters().getProperties()
+                    .get(),
+                null);
+            base = config;
+        }
+        return base;
+    }
+
+    /**
+     * Builds the configuration of a project, setting the default value of every missing property as an extra
+     * property.
+     *
+     * @param project The project
+     * @return A new configuration, with the project's gradle.properties and extra properties applied
+     */
+    public @NotNull PropertiesConfiguration forProject(final @NotNull Project project) {
+        // Subprojects with a gradle.properties of their own, or in a parent, see different values than the build.
+        // Walking the directories rather than the parent projects keeps this valid under Isolated Projects.
+        final Path rootDir = project.getRootDir()
+            .toPath();
+        boolean ownProperties = false;
+        Path dir = project.getProjectDir()
+            .toPath();
+        while (dir.startsWith(rootDir) && !dir.equals(rootDir)) {
+            ownProperties |= Files.isRegularFile(dir.resolve("gradle.properties"));
+            dir = dir.getParent();
+        }
+        final Map<String, String> gradleProperties = ownProperties ? read(project.getProviders())
+            : getParameters().getProperties()
+                .get();
+
+        // Only the project's own extra properties apply, reading those of the parents would break Isolated Projects.
+        // Values meant for several projects belong in a gradle.properties file, which subprojects see through the walk
+        // above.
+        final ExtraPropertiesExtension ext = project.getExtensions()
+            .getExtraProperties();
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        config.initFromProperties(merge(gradleProperties, ext.getProperties()), ext::set);
+        return config;
+    }
+
+    /**
+     * Layers the project's extra properties over the Gradle properties. Extra properties of parent projects are not
+     * inherited.
+     *
+     * @param gradleProperties The GTNH properties from gradle.properties files, the environment and the command line
+     * @param extraProperties  The project's own extra properties
+     * @return The merged values of the GTNH properties
+     */
+    static @NotNull Map<String, Object> merge(final @NotNull Map<String, String> gradleProperties,
+        final @NotNull Map<String, ?> extraProperties) {
+        final Map<String, Object> merged = new HashMap<>(gradleProperties);
+        for (final String key : PropertiesConfiguration.propertyNames()) {
+            final Object value = extraProperties.get(key);
+            if (value != null) {
+                merged.put(key, value.toString());
+            }
+        }
+        return merged;
+    }
+
+    private static Map<String, String> read(final ProviderFactory providers) {
+        final Map<String, String> values = new HashMap<>();
+        for (final String key : PropertiesConfiguration.propertyNames()) {
+            final String value = providers.gradleProperty(key)
+                .getOrNull();
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+}
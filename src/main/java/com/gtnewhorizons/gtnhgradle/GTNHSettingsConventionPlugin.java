@@ -3,7 +3,9 @@ package com.gtnewhorizons.gtnhgradle;
 import com.diffplug.blowdryer.BlowdryerSetup;
 import com.diffplug.blowdryer.BlowdryerSetupPlugin;
 import org.gradle.api.JavaVersion;
+import org.gradle.api.IsolatedAction;
 import org.gradle.api.Plugin;
+import org.gradle.api.Project;
 import org.gradle.api.initialization.Settings;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
@@ -11,6 +13,9 @@ import org.gradle.api.plugins.PluginManager;
 import org.gradle.toolchains.foojay.FoojayToolchainsConventionPlugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.util.List;
+
 /**
  * Applies some shared settings.gradle logic used by the GTNH mod development ecosystem.
  */
@@ -30,11 +35,8 @@ public abstract class GTNHSettingsConventionPlugin implements Plugin<Settings> {
             spotlessVersion = UpdateableConstants.NEWEST_SPOTLESS;
             logger.info("Adding Spotless {} to classpath due to Java {}", spotlessVersion, currentJava);
             target.getGradle()
-                .beforeProject(prj -> {
-                    prj.getBuildscript()
-                        .getDependencies()
-                        .add("classpath", "com.diffplug.spotless:spotless-plugin-gradle:" + spotlessVersion);
-                });
+                .getLifecycle()
+                .beforeProject(new AddSpotlessClasspath(spotlessVersion));
         }
 
         plugins.apply(FoojayToolchainsConventionPlugin.class);
@@ -55,14 +57,58 @@ public abstract class GTNHSettingsConventionPlugin implements Plugin<Settings> {
             }
         }
 
+        if (config.moduleGitVersion && !target.getProviders()
+            .environmentVariable("VERSION")
+            .isPresent()) {
+            // Overlaps the git lookups with script compilation and plugin resolution
+            final File rootDir = target.getRootDir();
+            final List<String> excludedPaths = List.of(config.runClientDirectory, config.runServerDirectory);
+            target.getGradle()
+                .settingsEvaluated(_s -> GTNHPrewarmService.start(target.getGradle(), rootDir, excludedPaths));
+        }
+
         target.getGradle()
-            .beforeProject(p -> {
-                p.getExtensions()
-                    .getExtraProperties()
-                    .set(
-                        GTNHConstants.SETTINGS_GRADLE_FILE_PROPERTY,
-                        target.getBuildscript()
-                            .getSourceFile());
-            });
+            .getLifecycle()
+            .beforeProject(
+                new SetSettingsLocation(
+                    target.getBuildscript()
+                        .getSourceFile()));
+    }
+
+    /**
+     * Isolated actions only capture their own fields, not the settings object, so that projects can be configured in
+     * parallel under Isolated Projects.
+     */
+    private static final class AddSpotlessClasspath implements IsolatedAction<Project> {
+
+        private final String spotlessVersion;
+
+        AddSpotlessClasspath(String spotlessVersion) {
+            this.spotlessVersion = spotlessVersion;
+        }
+
+        @Override
+        public void execute(@NotNull Project project) {
+            project.getBuildscript()
+                .getDependencies()
+                .add("classpath", "com.diffplug.spotless:spotless-plugin-gradle:" + spotlessVersion);
+        }
+    }
+
+    /** Exposes the settings file location to every project, see {@link GTNHConstants#SETTINGS_GRADLE_FILE_PROPERTY} */
+    private static final class SetSettingsLocation implements IsolatedAction<Project> {
+
+        private final File settingsFile;
+
+        SetSettingsLocation(File settingsFile) {
+            this.settingsFile = settingsFile;
+        }
+
+        @Override
+        public void execute(@NotNull Project project) {
+            project.getExtensions()
+                .getExtraProperties()
+                .set(GTNHConstants.SETTINGS_GRADLE_FILE_PROPERTY, settingsFile);
+        }
     }
 }
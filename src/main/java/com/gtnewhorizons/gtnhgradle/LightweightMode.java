@@ -0,0 +1,99 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import com.gtnewhorizons.gtnhgradle.modules.CodeStyleModule;
+import com.gtnewhorizons.gtnhgradle.modules.GitVersionModule;
+import com.gtnewhorizons.gtnhgradle.modules.UpdaterModule;
+import com.gtnewhorizons.gtnhgradle.modules.UtilityModule;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Defines when GTNHGradle skips RetroFuturaGradle and the modules the requested tasks don't need, so that formatting
+ * and maintenance tasks don't pay for setting up Minecraft, MCP, toolchains and run configurations.
+ */
+public enum LightweightMode {
+
+    /** Lightweight if every requested task is known not to need the full setup */
+    AUTO("auto"),
+    /** Always lightweight, tasks of skipped modules will not exist */
+    TRUE("true"),
+    /** Always configure everything */
+    FALSE("false");
+
+    /** Tasks that can run in a lightweight configuration, with the module registering or configuring them */
+    public static final Map<String, Class<? extends GTNHModule>> TASK_MODULES = Map.of(
+        "faq",
+        UtilityModule.class,
+        "propertiesHelp",
+        UtilityModule.class,
+        "printVersion",
+        GitVersionModule.class,
+        "updateDependencies",
+        UpdaterModule.class,
+        "updateBuildScript",
+        UpdaterModule.class,
+        "wrapper",
+        UpdaterModule.class,
+        "updateDaemonJvm",
+        UpdaterModule.class);
+
+    /** Task name prefix of the tasks registered by Spotless, see {@link CodeStyleModule} */
+    public static final String SPOTLESS_TASK_PREFIX = "spotless";
+
+    private final String propertyValue;
+
+    LightweightMode(@NotNull String propertyValue) {
+        this.propertyValue = propertyValue;
+    }
+
+    /** The property value string for this mode */
+    public @NotNull String getPropertyValue() {
+        return propertyValue;
+    }
+
+    /**
+     * @param value The property value
+     * @return The parsed mode
+     * @throws IllegalArgumentException If the value is not a valid mode
+     */
+    public static @NotNull LightweightMode fromString(@NotNull String value) {
+        for (final LightweightMode mode : values()) {
+            if (mode.propertyValue.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException(
+            "Invalid value for gtnh.lightweight: '" + value + "'. Valid values are: auto, true, false");
+    }
+
+    /**
+     * Picks the modules needed by the requested tasks.
+     *
+     * @param taskNames The task names and options from the command line
+     * @return The modules to apply in a lightweight configuration, or null if the project needs the full setup
+     */
+    public @Nullable Set<Class<? extends GTNHModule>> modulesFor(@NotNull List<String> taskNames) {
+        if (this == FALSE || (this == AUTO && taskNames.isEmpty())) {
+            // No tasks means the default tasks or an IDE sync, which needs everything
+            return null;
+        }
+        final Set<Class<? extends GTNHModule>> modules = new HashSet<>();
+        for (final String arg : taskNames) {
+            // Unknown names, including abbreviations and task options, need the full setup
+            final String name = arg.substring(arg.lastIndexOf(':') + 1);
+            final Class<? extends GTNHModule> module = name.startsWith(SPOTLESS_TASK_PREFIX) ? CodeStyleModule.class
+                : TASK_MODULES.get(name);
+            if (module != null) {
+                modules.add(module);
+            } else if (this == AUTO) {
+                return null;
+            }
+        }
+        return modules;
+    }
+}
@@ -4,9 +4,10 @@ import org.gradle.api.Project;
 import org.gradle.api.initialization.Settings;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
 import java.io.PrintStream;
-import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -16,10 +17,12 @@ import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -811,6 +814,183 @@ public final class PropertiesConfiguration {
             This is meant to be set in $HOME/.gradle/gradle.properties.
             """)
     public boolean ideaCheckSpotlessOnBuild = true;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.lightweight",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Skips RetroFuturaGradle and the modules the requested tasks don't need. Valid values are: auto (only when every
+            requested task is a spotless, faq, propertiesHelp, printVersion or update task), true (always), false (never).
+            """)
+    public @NotNull String lightweight = "auto";
+    // </editor-fold>
+
+    // <editor-fold desc="Diagnostics">
+    /** See annotation */
+    @Prop(
+        name = "gtnh.profileConfiguration",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Prints a per-module summary of configuration time, allocations, realized tasks and created configurations.
+            The full report is also written to build/gtnh/configuration-profile.json.
+            """)
+    public boolean profileConfiguration = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.buildMetrics",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Records duration, outcome and output size of the heavy GTNH tasks to build/gtnh/metrics/, see the gtnhBuildReport task.
+            Output sizes are only measured for tasks that executed.
+            """)
+    public boolean buildMetrics = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.trace",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Writes module, afterEvaluate and task execution spans to build/gtnh/trace.json in the Chrome trace-event format.
+            Load the file in https://ui.perfetto.dev to see the build timeline.
+            """)
+    public boolean traceBuild = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.perfHistory",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Appends configuration and task durations of every build to a per-project store under the Gradle user home,
+            used by the gtnhPerfCompare task. Requires gtnh.buildMetrics.
+            """)
+    public boolean perfHistory = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.perfCompare.threshold",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Slowdown in percent against the median of recent builds beyond which gtnhPerfCompare reports a regression.
+            """)
+    public int perfCompareThreshold = 30;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.perfCompare.failOnRegression",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = "Whether gtnhPerfCompare should fail the build instead of warning when it finds a regression.")
+    public boolean perfCompareFailOnRegression = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.auditEagerConfiguration",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Audits tasks realized during configuration and attributes them to the GTNH module or script that caused it.
+            Set to warn to log the findings or fail to fail the build, the report is written to build/gtnh/eager-configuration.json.
+            """)
+    public @NotNull String auditEagerConfiguration = "";
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.detectEagerResolution",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Logs every dependency configuration resolved while evaluating the project, with its resolution time and the GTNH
+            module or script that triggered it. The report is written to build/gtnh/eager-resolution.json.
+            """)
+    public boolean detectEagerResolution = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.auditNetwork",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Records the network calls made by GTNHGradle (update checks, Blowdryer, deobf downloads, ...) with their latency,
+            and prints a summary at the end of the build marking the calls that blocked configuration.
+            """)
+    public boolean auditNetwork = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.cacheSnapshots",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Fingerprints the inputs of the heavy GTNH tasks whenever they execute, into build/gtnh/cache-snapshots/.
+            Compare two snapshots with the gtnhExplainCacheMiss task. The tasks themselves and their cache keys are not changed.
+            """)
+    public boolean cacheSnapshots = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.daemonMemory",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Samples heap, metaspace and loaded classes of the Gradle daemon at the start and end of every build, and warns
+            when metaspace keeps growing across builds in the same daemon.
+            """)
+    public boolean daemonMemory = false;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.daemonMemory.thresholdMiB",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = "Metaspace growth since the daemon's first build, in MiB, beyond which gtnh.daemonMemory warns.")
+    public int daemonMemoryThresholdMiB = 64;
+
+    /** See annotation */
+    @Prop(
+        name = "gtnh.daemonMemory.histogram",
+        isSettings = false,
+        preferPopulated = false,
+        required = false,
+        hidden = true,
+        docComment = """
+            Writes a class histogram filtered to GTNHGradle, RFG, plugin classes and classloaders to build/gtnh/memory/
+            at the end of every build. Triggers a full GC.
+            """)
+    public boolean daemonMemoryHistogram = false;
     // </editor-fold>
     // </editor-fold>
 
@@ -825,47 +1005,146 @@ public final class PropertiesConfiguration {
     public static class GradleUtils {
 
         /**
-         * Fills properties from the root directory's gradle.properties file and command line "-P" properties.
+         * Fills properties from the build-wide Gradle properties, parsed once per build by {@link GTNHPropertiesService}.
          *
          * @param settings The Gradle {@link Settings} object, from a settings plugin
          *                 {@link org.gradle.api.Plugin#apply(Object)} parameter
          * @return The initialized properties
          */
         public static PropertiesConfiguration makePropertiesFrom(final Settings settings) {
-            final PropertiesConfiguration self = new PropertiesConfiguration();
-            final Path rootDir = settings.getRootDir()
-                .toPath();
-            final Path propertiesFile = rootDir.resolve("gradle.properties");
-            final Properties props = new Properties();
-            if (Files.exists(propertiesFile)) {
-                try (final Reader rdr = Files.newBufferedReader(propertiesFile, StandardCharsets.UTF_8)) {
-                    props.load(rdr);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-            for (Map.Entry<String, String> entry : settings.getStartParameter()
-                .getProjectProperties()
-                .entrySet()) {
-                props.setProperty(entry.getKey(), entry.getValue());
-            }
-            self.initFromProperties(props, null);
-            return self;
+            return GTNHPropertiesService.register(settings.getGradle(), settings.getProviders())
+                .get()
+                .base()
+                .copy();
         }
 
         /**
-         * Fills properties from the current project's state.
+         * Fills properties from the build-wide Gradle properties shared with the settings plugin, or from the project's
+         * own Gradle properties if it has a gradle.properties file, overlaid with the project's extra properties.
          *
          * @param project The Gradle {@link Project} to read the properties from.
          * @return The initialized properties
          */
         public static PropertiesConfiguration makePropertiesFrom(final Project project) {
-            final PropertiesConfiguration self = new PropertiesConfiguration();
-            self.initFromProperties(
-                project.getProperties(),
-                project.getExtensions()
-                    .getExtraProperties()::set);
-            return self;
+            // The build-wide properties are the same from every project, and the root project is out of reach under
+            // Isolated Projects
+            return GTNHPropertiesService.register(project.getGradle(), project.getProviders())
+                .get()
+                .forProject(project);
+        }
+    }
+
+    /** @return The names of all GTNH properties, in declaration order */
+    public static @NotNull List<String> propertyNames() {
+        return Binding.NAMES;
+    }
+
+    /** @return An independent copy of this configuration */
+    public @NotNull PropertiesConfiguration copy() {
+        final PropertiesConfiguration copy = new PropertiesConfiguration();
+        for (final Binding binding : Binding.ALL) {
+            binding.copy(this, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * A {@link Prop} field with method handles to read it and to set it from a property string, computed once per
+     * classloader so that configuring a project doesn't go through reflection again.
+     *
+     * @param prop   The field's annotation
+     * @param getter {@code (PropertiesConfiguration)Object}
+     * @param setter {@code (PropertiesConfiguration, Object)void}, null if the field type can't be parsed from a string
+     * @param parser Converts the trimmed property string to the field's value, null if the setter is
+     */
+    private record Binding(@NotNull Prop prop, @NotNull MethodHandle getter, MethodHandle setter,
+        Function<String, Object> parser) {
+
+        /** All properties in declaration order, which is the order of the generated gradle.properties */
+        private static final List<Binding> ALL = bindAll();
+
+        private static final List<String> NAMES = ALL.stream()
+            .map(
+                b -> b.prop()
+                    .name())
+            .toList();
+
+        private static List<Binding> bindAll() {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodType getterType = MethodType.methodType(Object.class, PropertiesConfiguration.class);
+            final MethodType setterType = MethodType
+                .methodType(void.class, PropertiesConfiguration.class, Object.class);
+            final List<Binding> bindings = new ArrayList<>();
+            try {
+                for (final Field field : PropertiesConfiguration.class.getDeclaredFields()) {
+                    final Prop prop = field.getAnnotation(Prop.class);
+                    if (prop == null) {
+                        continue;
+                    }
+                    final Function<String, Object> parser = parserFor(field.getType());
+                    final MethodHandle setter = parser == null ? null
+                        : lookup.unreflectSetter(field)
+                            .asType(setterType);
+                    bindings.add(
+                        new Binding(
+                            prop,
+                            lookup.unreflectGetter(field)
+                                .asType(getterType),
+                            setter,
+                            parser));
+                }
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+            return List.copyOf(bindings);
+        }
+
+        private static Function<String, Object> parserFor(Class<?> type) {
+            if (type == String.class) {
+                return value -> value;
+            } else if (type == boolean.class || type == Boolean.class) {
+                return Boolean::parseBoolean;
+            } else if (type == int.class || type == Integer.class) {
+                return Integer::parseInt;
+            }
+            return null;
+        }
+
+        Object get(PropertiesConfiguration self) {
+            try {
+                return (Object) getter.invokeExact(self);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        void copy(PropertiesConfiguration from, PropertiesConfiguration to) {
+            if (setter == null) {
+                return;
+            }
+            try {
+                setter.invokeExact(to, get(from));
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+
+        void set(PropertiesConfiguration self, String value) {
+            if (setter == null) {
+                return;
+            }
+            final Object parsed = parser.apply(value);
+            try {
+                setter.invokeExact(self, parsed);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
         }
     }
 
@@ -876,45 +1155,28 @@ public final class PropertiesConfiguration {
      * @param onMissing Function to call if a property was found to be missing
      */
     public void initFromProperties(Map<?, ?> props, BiConsumer<String, Object> onMissing) {
-        final Field[] fields = getClass().getDeclaredFields();
-        for (final Field field : fields) {
-            final Prop prop = field.getAnnotation(Prop.class);
-            if (prop == null) {
-                continue;
-            }
-            final String key = prop.name();
+        for (final Binding binding : Binding.ALL) {
+            final String key = binding.prop()
+                .name();
             final Object value = props.getOrDefault(key, null);
-            try {
-                if (value == null) {
-                    if (prop.required()) {
-                        throw new IllegalArgumentException(
-                            "Required gradle property " + key + " is missing from project properties!");
-                    }
-                    if (onMissing != null) {
-                        onMissing.accept(key, field.get(this));
-                    }
-                    continue;
+            if (value == null) {
+                if (binding.prop()
+                    .required()) {
+                    throw new IllegalArgumentException(
+                        "Required gradle property " + key + " is missing from project properties!");
                 }
-                String strValue = value.toString();
-                if (strValue == null) {
-                    strValue = "";
-                } else {
-                    strValue = strValue.trim();
-                }
-                if (field.getType() == String.class) {
-                    field.set(this, strValue);
-                } else if (field.getType() == boolean.class) {
-                    field.setBoolean(this, Boolean.parseBoolean(strValue));
-                } else if (field.getType() == Boolean.class) {
-                    field.set(this, Boolean.parseBoolean(strValue));
-                } else if (field.getType() == int.class) {
-                    field.setInt(this, Integer.parseInt(strValue));
-                } else if (field.getType() == Integer.class) {
-                    field.set(this, Integer.parseInt(strValue));
+                if (onMissing != null) {
+                    onMissing.accept(key, binding.get(this));
                 }
-            } catch (ReflectiveOperationException e) {
-                throw new RuntimeException(e);
+                continue;
+            }
+            String strValue = value.toString();
+            if (strValue == null) {
+                strValue = "";
+            } else {
+                strValue = strValue.trim();
             }
+            binding.set(this, strValue);
         }
     }
 
@@ -949,64 +1211,56 @@ public final class PropertiesConfiguration {
         final StringBuilder sb = new StringBuilder();
         final String newline = System.lineSeparator();
 
-        try {
-            final Field[] fields = getClass().getDeclaredFields();
-            for (final Field field : fields) {
-                final Prop prop = field.getAnnotation(Prop.class);
-                if (prop == null) {
-                    continue;
-                }
-                final String key = prop.name();
-                final Object defaultValue = field.get(this);
-                final String originalValue = originalValues.remove(key);
+        for (final Binding binding : Binding.ALL) {
+            final Prop prop = binding.prop();
+            final String key = prop.name();
+            final Object defaultValue = binding.get(this);
+            final String originalValue = originalValues.remove(key);
 
-                if (originalValue == null && defaultValue == null) {
-                    continue;
-                }
-                if (originalValue == null && prop.hidden()) {
-                    continue;
-                }
+            if (originalValue == null && defaultValue == null) {
+                continue;
+            }
+            if (originalValue == null && prop.hidden()) {
+                continue;
+            }
 
-                final String[] docComment = prop.docComment()
-                    .trim()
-                    .split("\n");
-                for (final String docLine : docComment) {
-                    sb.append(docLine.isEmpty() ? "#" : "# ");
-                    sb.append(docLine);
-                    sb.append(newline);
-                }
-                if (originalValue == null && !prop.preferPopulated()) {
-                    sb.append("# ");
-                }
-                sb.append(key);
-                sb.append(" =");
-                final String valueToPrint;
-                if (originalValue != null) {
-                    valueToPrint = originalValue;
-                } else if (!prop.preferPopulated() && !prop.defaultInComment()
-                    .equals("!")) {
-                        valueToPrint = prop.defaultInComment();
-                    } else {
-                        valueToPrint = defaultValue.toString();
-                    }
-                if (!valueToPrint.isEmpty()) {
-                    sb.append(' ');
-                    appendPropertySafeString(sb, valueToPrint);
-                }
-                sb.append(newline);
+            final String[] docComment = prop.docComment()
+                .trim()
+                .split("\n");
+            for (final String docLine : docComment) {
+                sb.append(docLine.isEmpty() ? "#" : "# ");
+                sb.append(docLine);
                 sb.append(newline);
             }
-            if (!originalValues.isEmpty()) {
-                sb.append("# Non-GTNH properties\n");
-                for (final Map.Entry<String, String> entry : originalValues.entrySet()) {
-                    sb.append(entry.getKey());
-                    sb.append(" = ");
-                    appendPropertySafeString(sb, entry.getValue());
-                    sb.append(newline);
+            if (originalValue == null && !prop.preferPopulated()) {
+                sb.append("# ");
+            }
+            sb.append(key);
+            sb.append(" =");
+            final String valueToPrint;
+            if (originalValue != null) {
+                valueToPrint = originalValue;
+            } else if (!prop.preferPopulated() && !prop.defaultInComment()
+                .equals("!")) {
+                    valueToPrint = prop.defaultInComment();
+                } else {
+                    valueToPrint = defaultValue.toString();
                 }
+            if (!valueToPrint.isEmpty()) {
+                sb.append(' ');
+                appendPropertySafeString(sb, valueToPrint);
+            }
+            sb.append(newline);
+            sb.append(newline);
+        }
+        if (!originalValues.isEmpty()) {
+            sb.append("# Non-GTNH properties\n");
+            for (final Map.Entry<String, String> entry : originalValues.entrySet()) {
+                sb.append(entry.getKey());
+                sb.append(" = ");
+                appendPropertySafeString(sb, entry.getValue());
+                sb.append(newline);
             }
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException(e);
         }
 
         return sb.toString();
@@ -1046,38 +1300,30 @@ public final class PropertiesConfiguration {
      */
     public static void printPropertyDocs(final PrintStream out) {
         out.println("GTNHGradle supports various Gradle properties to change its behaviour:");
-        final Field[] fields = PropertiesConfiguration.class.getDeclaredFields();
         final PropertiesConfiguration defaultCfg = new PropertiesConfiguration();
-        try {
-            for (final Field field : fields) {
-                final Prop prop = field.getAnnotation(Prop.class);
-                if (prop == null) {
-                    continue;
-                }
-                final String key = prop.name();
-                Object defaultValue = field.get(defaultCfg);
-                if (defaultValue instanceof String) {
-                    defaultValue = '"' + (String) defaultValue + '"';
-                } else if (defaultValue == null) {
-                    defaultValue = "null";
-                }
-                out.println();
-                out.print("Key: ");
-                out.println(key);
-                out.printf(
-                    "Affects settings.gradle: %s  Required: %s  Default: %s%n",
-                    prop.isSettings(),
-                    prop.required(),
-                    defaultValue);
-                out.println("Description: ");
-                String docOut = "\n" + prop.docComment()
-                    .trim();
-                // indent everything two spaces
-                docOut = docOut.replace("\n", "\n  ");
-                out.println(docOut);
+        for (final Binding binding : Binding.ALL) {
+            final Prop prop = binding.prop();
+            final String key = prop.name();
+            Object defaultValue = binding.get(defaultCfg);
+            if (defaultValue instanceof String) {
+                defaultValue = '"' + (String) defaultValue + '"';
+            } else if (defaultValue == null) {
+                defaultValue = "null";
             }
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException(e);
+            out.println();
+            out.print("Key: ");
+            out.println(key);
+            out.printf(
+                "Affects settings.gradle: %s  Required: %s  Default: %s%n",
+                prop.isSettings(),
+                prop.required(),
+                defaultValue);
+            out.println("Description: ");
+            String docOut = "\n" + prop.docComment()
+                .trim();
+            // indent everything two spaces
+            docOut = docOut.replace("\n", "\n  ");
+            out.println(docOut);
         }
     }
 
@@ -0,0 +1,499 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import com.gtnewhorizons.gtnhgradle.BuildConfig;
+import com.gtnewhorizons.gtnhgradle.GTNHConstants;
+import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
+import com.gtnewhorizons.gtnhgradle.tasks.BuildReportTask;
+import com.gtnewhorizons.gtnhgradle.tasks.PerfCompareTask;
+import org.gradle.api.Project;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.gradle.tooling.events.OperationResult;
+import org.gradle.tooling.events.task.TaskFailureResult;
+import org.gradle.tooling.events.task.TaskFinishEvent;
+import org.gradle.tooling.events.task.TaskSkippedResult;
+import org.gradle.tooling.events.task.TaskSuccessResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-project listener recording duration, outcome and output size of the heavy tasks GTNHGradle wires together.
+ * Each project registers its own service, so that projects never write to each other's state.
+ * Results are written to {@code build/gtnh/metrics/tasks.csv} and {@code tasks.json} when the build finishes, and
+ * summarized by the {@code gtnhBuildReport} task. Output sizes are only measured for tasks that actually executed.
+ * With {@code gtnh.trace} enabled, every task execution of the project is also written together with the buffered
+ * configuration spans as a {@link BuildTrace} to {@code build/gtnh/trace.json}.
+ * Configuration and executed task durations are also appended to the project's {@link PerfHistory}, which the
+ * {@code gtnhPerfCompare} task checks for regressions.
+ */
+public abstract class BuildMetricsService
+    implements BuildService<BuildMetricsService.Parameters>, OperationCompletionListener, AutoCloseable {
+
+    /** Name of the root project's service registration, other projects append their path */
+    public static final String SERVICE_NAME = "gtnhBuildMetrics";
+
+    /** Location of the metrics directory, relative to the project build directory */
+    public static final String METRICS_DIR = "gtnh/metrics";
+
+    /** Location of the trace file, relative to the project build directory */
+    public static final String TRACE_PATH = "gtnh/trace.json";
+
+    /** Names of the tasks whose metrics are recorded */
+    public static final Set<String> TRACKED_TASKS = Set.of(
+        "downgradeJar",
+        "shadeDowngradedApi",
+        "shadowJar",
+        "reobfJar",
+        "downgradeMainClasses",
+        "processResources",
+        "injectTags");
+
+    /** CSV header line written to tasks.csv */
+    public static final String CSV_HEADER = "task,outcome,startMillis,endMillis,durationMillis,outputBytes";
+
+    /** Outcome reported for tasks that executed their actions */
+    public static final String OUTCOME_EXECUTED = "EXECUTED";
+
+    /** Outcome reported for tasks that failed */
+    public static final String OUTCOME_FAILED = "FAILED";
+
+    /** Service parameters, filled in by the project owning the service */
+    public interface Parameters extends BuildServiceParameters {
+
+        /** @return Path of the project whose tasks are recorded */
+        Property<String> getProjectPath();
+
+        /** @return Build tree path of the project, identifying its {@link BuildTrace} spans */
+        Property<String> getBuildTreePath();
+
+        /** @return Absolute metrics directory path, if metrics are enabled */
+        Property<String> getMetricsDirectory();
+
+        /** @return Task path to its output files, joined with {@link File#pathSeparator} */
+        MapProperty<String, String> getTrackedOutputs();
+
+        /** @return Absolute trace file path, if tracing is enabled */
+        Property<String> getTraceFile();
+
+        /** @return Absolute {@link PerfHistory} store path, if history is enabled */
+        Property<String> getPerfStoreFile();
+
+        /** @return The git hash the project is built from */
+        Property<String> getGitHash();
+    }
+
+    /**
+     * A single task execution.
+     *
+     * @param taskPath    Full path of the task
+     * @param outcome     EXECUTED, UP-TO-DATE, FROM-CACHE, SKIPPED or FAILED
+     * @param startMillis Start time, in epoch milliseconds
+     * @param endMillis   End time, in epoch milliseconds
+     * @param outputBytes Total size of the task outputs, or -1 if not measured
+     */
+    public record TaskMetrics(@NotNull String taskPath, @NotNull String outcome, long startMillis, long endMillis,
+        long outputBytes) {
+
+        /** @return Wall time taken by the task */
+        public long durationMillis() {
+            return endMillis - startMillis;
+        }
+
+        /** @return The path of the project owning the task */
+        public @NotNull String projectPath() {
+            final int lastColon = taskPath.lastIndexOf(':');
+            return lastColon <= 0 ? ":" : taskPath.substring(0, lastColon);
+        }
+    }
+
+    private final ConcurrentLinkedQueue<TaskMetrics> records = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<TaskMetrics> tracedTasks = new ConcurrentLinkedQueue<>();
+    private final String buildId = UUID.randomUUID()
+        .toString();
+
+    /**
+     * @param projectPath A project path
+     * @return The name of the project's service registration
+     */
+    public static @NotNull String serviceName(final @NotNull String projectPath) {
+        return projectPath.equals(":") ? SERVICE_NAME : SERVICE_NAME + projectPath.replace(':', '.');
+    }
+
+    /**
+     * Registers the project's service and hooks up its tracked tasks and trace output to it.
+     *
+     * @param project The project to track
+     * @param gtnh    The project's GTNH extension
+     */
+    public static void register(final @NotNull Project project, final @NotNull GTNHGradlePlugin.GTNHExtension gtnh) {
+        final ProviderFactory providers = project.getProviders();
+        final Map<String, FileCollection> trackedOutputs = new LinkedHashMap<>();
+        if (gtnh.configuration.buildMetrics) {
+            project.getTasks()
+                .configureEach(t -> {
+                    if (TRACKED_TASKS.contains(t.getName())) {
+                        trackedOutputs.put(
+                            t.getPath(),
+                            t.getOutputs()
+                                .getFiles());
+                    }
+                });
+        }
+        final boolean perfHistory = gtnh.configuration.buildMetrics && gtnh.configuration.perfHistory;
+        final File store = perfHistory ? PerfHistory
+            .storeFile(
+                project.getGradle()
+                    .getGradleUserHomeDir()
+                    .toPath(),
+                project.getName(),
+                project.getProjectDir()
+                    .toPath())
+            .toFile() : null;
+        final ExtraPropertiesExtension ext = project.getExtensions()
+            .getExtraProperties();
+
+        final Provider<BuildMetricsService> service = project.getGradle()
+            .getSharedServices()
+            .registerIfAbsent(serviceName(project.getPath()), BuildMetricsService.class, spec -> {
+                final Parameters params = spec.getParameters();
+                params.getProjectPath()
+                    .set(project.getPath());
+                params.getBuildTreePath()
+                    .set(project.getBuildTreePath());
+                if (gtnh.configuration.traceBuild) {
+                    params.getTraceFile()
+                        .set(
+                            project.getLayout()
+                                .getBuildDirectory()
+                                .file(TRACE_PATH)
+                                .map(
+                                    f -> f.getAsFile()
+                                        .getAbsolutePath()));
+                }
+                if (gtnh.configuration.buildMetrics) {
+                    params.getMetricsDirectory()
+                        .set(
+                            project.getLayout()
+                                .getBuildDirectory()
+                                .dir(METRICS_DIR)
+                                .map(
+                                    d -> d.getAsFile()
+                                        .getAbsolutePath()));
+                    params.getTrackedOutputs()
+                        .putAll(providers.provider(() -> {
+                            final Map<String, String> paths = new LinkedHashMap<>();
+                            trackedOutputs.forEach(
+                                (path, files) -> paths.put(
+                                    path,
+                                    files.getFiles()
+                                        .stream()
+                                        .map(File::getAbsolutePath)
+                                        .collect(Collectors.joining(File.pathSeparator))));
+                            return paths;
+                        }));
+                }
+                if (store != null) {
+                    params.getPerfStoreFile()
+                        .set(store.getAbsolutePath());
+                    params.getGitHash()
+                        .set(
+                            providers.provider(
+                                () -> ext.has(GTNHConstants.GIT_HASH_PROPERTY)
+                                    ? String.valueOf(ext.get(GTNHConstants.GIT_HASH_PROPERTY))
+                                    : "unknown"));
+                }
+            });
+        gtnh.getBuildEventsListenerRegistry()
+            .onTaskCompletion(service);
+
+        if (!gtnh.configuration.buildMetrics) {
+            return;
+        }
+        project.getTasks()
+            .register("gtnhBuildReport", BuildReportTask.class, t -> {
+                t.getMetricsFile()
+                    .set(
+                        project.getLayout()
+                            .getBuildDirectory()
+                            .file(METRICS_DIR + "/tasks.csv"));
+            });
+        if (store != null) {
+            project.getTasks()
+                .register("gtnhPerfCompare", PerfCompareTask.class, t -> {
+                    t.getStoreFile()
+                        .set(store);
+                    t.getThresholdPercent()
+                        .set(gtnh.configuration.perfCompareThreshold);
+                    t.getFailOnRegression()
+                        .set(gtnh.configuration.perfCompareFailOnRegression);
+                });
+        }
+    }
+
+    @Override
+    public void onFinish(final FinishEvent event) {
+        if (!(event instanceof TaskFinishEvent taskEvent)) {
+            return;
+        }
+        final String taskPath = taskEvent.getDescriptor()
+            .getTaskPath();
+        final OperationResult result = taskEvent.getResult();
+        final String outcome = outcomeOf(result);
+        final TaskMetrics timing = new TaskMetrics(taskPath, outcome, result.getStartTime(), result.getEndTime(), -1);
+        if (!timing.projectPath()
+            .equals(
+                getParameters().getProjectPath()
+                    .get())) {
+            return;
+        }
+        if (getParameters().getTraceFile()
+            .isPresent()) {
+            tracedTasks.add(timing);
+        }
+        final String outputs = getParameters().getTrackedOutputs()
+            .get()
+            .get(taskPath);
+        if (outputs == null) {
+            return;
+        }
+        records.add(
+            new TaskMetrics(
+                taskPath,
+                outcome,
+                result.getStartTime(),
+                result.getEndTime(),
+                outcome.equals(OUTCOME_EXECUTED) ? sizeOf(outputs) : -1));
+    }
+
+    /** @return All task metrics recorded so far in this build */
+    public @NotNull List<TaskMetrics> getRecords() {
+        return List.copyOf(records);
+    }
+
+    @Override
+    public void close() {
+        final Parameters params = getParameters();
+        final List<TaskMetrics> metrics = List.copyOf(records);
+        if (params.getMetricsDirectory()
+            .isPresent() && !metrics.isEmpty()) {
+            final Path metricsDir = Path.of(
+                params.getMetricsDirectory()
+                    .get());
+            ReportWriter.write(metricsDir.resolve("tasks.csv"), toCsv(metrics));
+            ReportWriter.write(metricsDir.resolve("tasks.json"), toJson(metrics));
+        }
+        // Always drained, so that spans never outlive the build in the daemon
+        final List<BuildTrace.Span> configurationSpans = BuildTrace.drain(
+            params.getBuildTreePath()
+                .get());
+
+        if (params.getTraceFile()
+            .isPresent()) {
+            final List<BuildTrace.Span> taskSpans = tracedTasks.stream()
+                .map(
+                    m -> new BuildTrace.Span(
+                        m.taskPath(),
+                        "task," + m.outcome(),
+                        m.startMillis() * 1000L,
+                        m.durationMillis() * 1000L,
+                        null))
+                .toList();
+            if (!taskSpans.isEmpty() || !configurationSpans.isEmpty()) {
+                ReportWriter.write(
+                    Path.of(
+                        params.getTraceFile()
+                            .get()),
+                    BuildTrace.toChromeTrace(configurationSpans, taskSpans));
+            }
+        }
+
+        if (params.getPerfStoreFile()
+            .isPresent()) {
+            PerfHistory.append(
+                Path.of(
+                    params.getPerfStoreFile()
+                        .get()),
+                historySamples(
+                    buildId,
+                    System.currentTimeMillis(),
+                    params.getGitHash()
+                        .getOrElse("unknown"),
+                    configurationSpans,
+                    metrics));
+        }
+    }
+
+    /**
+     * Aggregates a build of one project into {@link PerfHistory} samples: one per applied module, the configuration
+     * total if any module was recorded, and one per tracked task.
+     *
+     * @param buildId            The build id
+     * @param timestampMillis    When the build finished
+     * @param gitHash            The git hash the project is built from
+     * @param configurationSpans The project's configuration spans
+     * @param metrics            The project's tracked task executions
+     * @return The samples
+     */
+    public static @NotNull List<PerfHistory.Sample> historySamples(final @NotNull String buildId,
+        final long timestampMillis, final @NotNull String gitHash,
+        final @NotNull List<BuildTrace.Span> configurationSpans, final @NotNull List<TaskMetrics> metrics) {
+        final List<PerfHistory.Sample> samples = new ArrayList<>();
+        long configurationMicros = 0;
+        for (final BuildTrace.Span span : configurationSpans) {
+            configurationMicros += span.durationMicros();
+            if (span.category()
+                .equals("module")) {
+                samples.add(
+                    new PerfHistory.Sample(
+                        buildId,
+                        timestampMillis,
+                        gitHash,
+                        BuildConfig.VERSION,
+                        PerfHistory.CONFIGURATION_STEP + ":" + span.name(),
+                        PerfHistory.CONFIGURED,
+                        span.durationMicros() / 1000L));
+            }
+        }
+        if (!samples.isEmpty()) {
+            samples.add(
+                new PerfHistory.Sample(
+                    buildId,
+                    timestampMillis,
+                    gitHash,
+                    BuildConfig.VERSION,
+                    PerfHistory.CONFIGURATION_STEP,
+                    PerfHistory.CONFIGURED,
+                    configurationMicros / 1000L));
+        }
+        for (final TaskMetrics m : metrics) {
+            samples.add(
+                new PerfHistory.Sample(
+                    buildId,
+                    timestampMillis,
+                    gitHash,
+                    BuildConfig.VERSION,
+                    m.taskPath(),
+                    m.outcome(),
+                    m.durationMillis()));
+        }
+        return samples;
+    }
+
+    private static @NotNull String outcomeOf(final OperationResult result) {
+        if (result instanceof TaskFailureResult) {
+            return OUTCOME_FAILED;
+        } else if (result instanceof TaskSkippedResult) {
+            return "SKIPPED";
+        } else if (result instanceof TaskSuccessResult success) {
+            if (success.isFromCache()) {
+                return "FROM-CACHE";
+            } else if (success.isUpToDate()) {
+                return "UP-TO-DATE";
+            }
+        }
+        return OUTCOME_EXECUTED;
+    }
+
+    /**
+     * @param joinedPaths Files and directories, joined with {@link File#pathSeparator}
+     * @return The total size of the files, or -1 if they couldn't be read
+     */
+    public static long sizeOf(final @NotNull String joinedPaths) {
+        long total = 0;
+        try {
+            for (final String path : joinedPaths.split(File.pathSeparator)) {
+                if (path.isEmpty()) {
+                    continue;
+                }
+                final Path p = Path.of(path);
+                if (Files.isRegularFile(p)) {
+                    total += Files.size(p);
+                } else if (Files.isDirectory(p)) {
+                    try (final Stream<Path> walk = Files.walk(p)) {
+                        total += walk.filter(Files::isRegularFile)
+                            .mapToLong(
+                                f -> f.toFile()
+                                    .length())
+                            .sum();
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // Outputs can be deleted concurrently by other tasks, a metric is not worth failing the build over
+            return -1;
+        }
+        return total;
+    }
+
+    /**
+     * @param metrics Task executions
+     * @return The tasks.csv contents
+     */
+    public static @NotNull String toCsv(final @NotNull List<TaskMetrics> metrics) {
+        final StringBuilder sb = new StringBuilder(CSV_HEADER).append('\n');
+        for (final TaskMetrics m : metrics) {
+            sb.append(ReportWriter.csvField(m.taskPath()))
+                .append(',')
+                .append(m.outcome())
+                .append(',')
+                .append(m.startMillis())
+                .append(',')
+                .append(m.endMillis())
+                .append(',')
+                .append(m.durationMillis())
+                .append(',')
+                .append(m.outputBytes())
+                .append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param metrics Task executions
+     * @return The tasks.json contents
+     */
+    public static @NotNull String toJson(final @NotNull List<TaskMetrics> metrics) {
+        final StringBuilder sb = new StringBuilder("{\n  \"tasks\": [");
+        for (int i = 0; i < metrics.size(); i++) {
+            final TaskMetrics m = metrics.get(i);
+            sb.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"task\": ")
+                .append(ReportWriter.jsonString(m.taskPath()))
+                .append(", \"outcome\": ")
+                .append(ReportWriter.jsonString(m.outcome()))
+                .append(", \"startMillis\": ")
+                .append(m.startMillis())
+                .append(", \"endMillis\": ")
+                .append(m.endMillis())
+                .append(", \"durationMillis\": ")
+                .append(m.durationMillis())
+                .append(", \"outputBytes\": ")
+                .append(m.outputBytes())
+                .append('}');
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+}
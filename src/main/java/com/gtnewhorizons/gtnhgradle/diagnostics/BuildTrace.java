@@ -0,0 +1,159 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects timeline spans and exports them in the Chrome trace-event JSON format, which can be loaded in Perfetto or
+ * chrome://tracing.
+ * Configuration-time spans are buffered here per project until the build finishes, because configuration and
+ * execution don't share any other state when the configuration cache is in use. Only plain data is buffered, and only
+ * for projects that trace their build. Projects are keyed by their {@link org.gradle.api.Project#getBuildTreePath()
+ * build tree path}, which stays unique across included builds.
+ */
+public final class BuildTrace {
+
+    /** Trace process id used for configuration spans, laid out by thread */
+    private static final int CONFIGURATION_PID = 1;
+    /** Trace process id used for task spans, laid out by lanes of non-overlapping tasks */
+    private static final int EXECUTION_PID = 2;
+
+    private static final long EPOCH_OFFSET_MICROS = System.currentTimeMillis() * 1000L - System.nanoTime() / 1000L;
+    private static final Map<String, Queue<Span>> PENDING = new ConcurrentHashMap<>();
+
+    private BuildTrace() {}
+
+    /**
+     * A completed span of work.
+     *
+     * @param name           Display name
+     * @param category       Trace category, e.g. "module" or "task"
+     * @param startMicros    Start, in epoch microseconds
+     * @param durationMicros Duration, in microseconds
+     * @param threadName     The thread the span ran on, or null if unknown
+     */
+    public record Span(@NotNull String name, @NotNull String category, long startMicros, long durationMicros,
+        String threadName) {}
+
+    /** @return The current time in epoch microseconds, with {@link System#nanoTime()} precision */
+    public static long nowMicros() {
+        return EPOCH_OFFSET_MICROS + System.nanoTime() / 1000L;
+    }
+
+    /**
+     * Forgets spans left over from an earlier configuration of the project, e.g. one that failed.
+     *
+     * @param buildTreePath The project's build tree path
+     */
+    public static void reset(final @NotNull String buildTreePath) {
+        PENDING.remove(buildTreePath);
+    }
+
+    /**
+     * Buffers a configuration-time span that ran on the current thread.
+     *
+     * @param buildTreePath The build tree path of the project the span belongs to
+     * @param name          Display name
+     * @param category      Trace category
+     * @param startMicros   Start, from {@link #nowMicros()}
+     */
+    public static void record(final @NotNull String buildTreePath, final @NotNull String name,
+        final @NotNull String category, final long startMicros) {
+        PENDING.computeIfAbsent(buildTreePath, k -> new ConcurrentLinkedQueue<>())
+            .add(
+                new Span(
+                    name,
+                    category,
+                    startMicros,
+                    nowMicros() - startMicros,
+                    Thread.currentThread()
+                        .getName()));
+    }
+
+    /**
+     * Removes and returns the buffered configuration spans of a project, called once the build finishes.
+     *
+     * @param buildTreePath The project's build tree path
+     * @return The spans, in recording order
+     */
+    public static @NotNull List<Span> drain(final @NotNull String buildTreePath) {
+        final Queue<Span> spans = PENDING.remove(buildTreePath);
+        return spans == null ? List.of() : List.copyOf(spans);
+    }
+
+    /**
+     * Renders a trace-event JSON document.
+     *
+     * @param configurationSpans Spans recorded during configuration, laid out by their thread
+     * @param taskSpans          Task execution spans, laid out in lanes of non-overlapping tasks
+     * @return The JSON document
+     */
+    public static @NotNull String toChromeTrace(final @NotNull List<Span> configurationSpans,
+        final @NotNull List<Span> taskSpans) {
+        final List<String> events = new ArrayList<>();
+        events.add(metadata("process_name", CONFIGURATION_PID, 0, "Configuration"));
+        events.add(metadata("process_name", EXECUTION_PID, 0, "Task execution"));
+
+        final Map<String, Integer> threadIds = new LinkedHashMap<>();
+        for (final Span span : configurationSpans) {
+            final String thread = span.threadName() == null ? "unknown" : span.threadName();
+            final int tid = threadIds.computeIfAbsent(thread, t -> threadIds.size() + 1);
+            events.add(complete(span, CONFIGURATION_PID, tid));
+        }
+        threadIds.forEach((thread, tid) -> events.add(metadata("thread_name", CONFIGURATION_PID, tid, thread)));
+
+        // Task events carry no thread information, so pack them greedily into lanes of non-overlapping spans
+        final List<Span> sortedTasks = new ArrayList<>(taskSpans);
+        sortedTasks.sort(Comparator.comparingLong(Span::startMicros));
+        final List<Long> laneEnds = new ArrayList<>();
+        for (final Span span : sortedTasks) {
+            int lane = 0;
+            while (lane < laneEnds.size() && laneEnds.get(lane) > span.startMicros()) {
+                lane++;
+            }
+            if (lane == laneEnds.size()) {
+                laneEnds.add(0L);
+                events.add(metadata("thread_name", EXECUTION_PID, lane + 1, "Lane " + (lane + 1)));
+            }
+            laneEnds.set(lane, span.startMicros() + span.durationMicros());
+            events.add(complete(span, EXECUTION_PID, lane + 1));
+        }
+
+        return "{\"displayTimeUnit\": \"ms\", \"traceEvents\": [\n" + String.join(",\n", events) + "\n]}\n";
+    }
+
+    private static @NotNull String complete(final @NotNull Span span, final int pid, final int tid) {
+        return "{\"name\": " + ReportWriter.jsonString(span.name())
+            + ", \"cat\": "
+            + ReportWriter.jsonString(span.category())
+            + ", \"ph\": \"X\", \"ts\": "
+            + span.startMicros()
+            + ", \"dur\": "
+            + span.durationMicros()
+            + ", \"pid\": "
+            + pid
+            + ", \"tid\": "
+            + tid
+            + "}";
+    }
+
+    private static @NotNull String metadata(final @NotNull String kind, final int pid, final int tid,
+        final @NotNull String name) {
+        return "{\"name\": \"" + kind
+            + "\", \"ph\": \"M\", \"pid\": "
+            + pid
+            + ", \"tid\": "
+            + tid
+            + ", \"args\": {\"name\": "
+            + ReportWriter.jsonString(name)
+            + "}}";
+    }
+}
@@ -0,0 +1,398 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.gradle.api.Task;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A compact fingerprint of the inputs of the GTNH-wired tasks executed in one build, and the logic to diff two of
+ * them. Snapshots are tab-separated files with one {@link Entry} per line, see {@link CacheSnapshotService}.
+ */
+public final class CacheSnapshot {
+
+    /** Location of the snapshot directory, relative to the project build directory */
+    public static final String SNAPSHOT_DIR = "gtnh/cache-snapshots";
+
+    /** File extension of snapshot files */
+    public static final String EXTENSION = ".tsv";
+
+    /** Entry kind for the task implementation class */
+    public static final String KIND_IMPLEMENTATION = "impl";
+    /** Entry kind for input property values */
+    public static final String KIND_PROPERTY = "property";
+    /** Entry kind for input file content hashes */
+    public static final String KIND_FILE = "file";
+
+    private static final int MAX_VALUE_LENGTH = 200;
+    private static final String HASH_PREFIX = "sha256:";
+    private static final String NORMALIZED_SEPARATOR = " normalized=";
+
+    private CacheSnapshot() {}
+
+    /**
+     * A single fingerprinted input.
+     *
+     * @param task  The task path
+     * @param kind  One of {@link #KIND_IMPLEMENTATION}, {@link #KIND_PROPERTY} or {@link #KIND_FILE}
+     * @param key   The property name or file path, empty for the implementation
+     * @param value The property value, or the file hash followed by the classpath-normalized hash for archives
+     */
+    public record Entry(@NotNull String task, @NotNull String kind, @NotNull String key, @NotNull String value) {
+
+        /** @return The line representing this entry in a snapshot file */
+        public @NotNull String toLine() {
+            return task + '\t' + kind + '\t' + escape(key) + '\t' + escape(value);
+        }
+    }
+
+    /**
+     * A changed input between two snapshots.
+     *
+     * @param task   The task path
+     * @param kind   The entry kind
+     * @param key    The property name or file path
+     * @param before The earlier value, null if the input was added
+     * @param after  The later value, null if the input was removed
+     * @param hint   A likely explanation, or null
+     */
+    public record Change(@NotNull String task, @NotNull String kind, @NotNull String key, String before, String after,
+        String hint) {
+
+        @Override
+        public @NotNull String toString() {
+            final String what = kind + " " + (key.isEmpty() ? "" : key + " ");
+            final String change;
+            if (before == null) {
+                change = "added: " + after;
+            } else if (after == null) {
+                change = "removed: " + before;
+            } else {
+                change = before + " -> " + after;
+            }
+            return what + change + (hint == null ? "" : "\n      hint: " + hint);
+        }
+    }
+
+    /**
+     * Describes the implementation and input property values of a task.
+     *
+     * @param task The task
+     * @return The implementation and property entries of the task
+     */
+    public static @NotNull List<Entry> describe(final @NotNull Task task) {
+        final String path = task.getPath();
+        final List<Entry> entries = new ArrayList<>();
+        entries.add(
+            new Entry(
+                path,
+                KIND_IMPLEMENTATION,
+                "",
+                task.getClass()
+                    .getName()
+                    .replace("_Decorated", "")));
+        new TreeMap<>(
+            task.getInputs()
+                .getProperties())
+            .forEach((name, value) -> entries.add(new Entry(path, KIND_PROPERTY, name, describeValue(value))));
+        return entries;
+    }
+
+    /**
+     * Fingerprints the input files of a task.
+     *
+     * @param taskPath       The task path
+     * @param files          The input files, missing files and directories are skipped
+     * @param projectDir     The project directory, file paths below it are recorded relative to it
+     * @param gradleUserHome The Gradle user home, file paths below it are recorded relative to it
+     * @return The file entries of the task, ordered by path
+     */
+    public static @NotNull List<Entry> fingerprintFiles(final @NotNull String taskPath,
+        final @NotNull Iterable<File> files, final @NotNull File projectDir, final @NotNull File gradleUserHome) {
+        final Map<String, String> hashes = new TreeMap<>();
+        for (final File file : files) {
+            if (file.isFile()) {
+                hashes.put(relativize(file, projectDir, gradleUserHome), fingerprint(file.toPath()));
+            }
+        }
+        final List<Entry> entries = new ArrayList<>();
+        hashes.forEach((name, hash) -> entries.add(new Entry(taskPath, KIND_FILE, name, hash)));
+        return entries;
+    }
+
+    /**
+     * @param line A line of a snapshot file
+     * @return The entry on the line, or null for comments and damaged lines
+     */
+    public static @Nullable Entry parse(final @NotNull String line) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return null;
+        }
+        final String[] f = line.split("\t", -1);
+        return f.length == 4 ? new Entry(f[0], f[1], unescape(f[2]), unescape(f[3])) : null;
+    }
+
+    /**
+     * @param snapshot The snapshot file
+     * @return The entries of the snapshot, keyed by task, kind and key
+     */
+    public static @NotNull Map<String, Entry> read(final @NotNull Path snapshot) {
+        final Map<String, Entry> entries = new LinkedHashMap<>();
+        try {
+            for (final String line : Files.readAllLines(snapshot, StandardCharsets.UTF_8)) {
+                final Entry entry = parse(line);
+                if (entry != null) {
+                    entries.put(identity(entry), entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read cache snapshot " + snapshot, e);
+        }
+        return entries;
+    }
+
+    /**
+     * Compares two snapshots. Tasks present in only one of them are skipped, since they didn't execute in both builds.
+     *
+     * @param before The earlier snapshot
+     * @param after  The later snapshot
+     * @return The changed inputs, ordered by task, kind and key
+     */
+    public static @NotNull List<Change> diff(final @NotNull Map<String, Entry> before,
+        final @NotNull Map<String, Entry> after) {
+        final Set<String> tasksBefore = new LinkedHashSet<>();
+        before.values()
+            .forEach(e -> tasksBefore.add(e.task()));
+        final Set<String> commonTasks = new LinkedHashSet<>();
+        after.values()
+            .stream()
+            .map(Entry::task)
+            .filter(tasksBefore::contains)
+            .forEach(commonTasks::add);
+
+        final Set<String> keys = new LinkedHashSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        final List<Change> changes = new ArrayList<>();
+        for (final String id : keys) {
+            final Entry b = before.get(id);
+            final Entry a = after.get(id);
+            final Entry any = b != null ? b : a;
+            if (!commonTasks.contains(any.task())) {
+                continue;
+            }
+            final String valueBefore = b == null ? null : b.value();
+            final String valueAfter = a == null ? null : a.value();
+            if (!Objects.equals(valueBefore, valueAfter)) {
+                changes.add(
+                    new Change(
+                        any.task(),
+                        any.kind(),
+                        any.key(),
+                        valueBefore,
+                        valueAfter,
+                        hint(any.kind(), any.key(), valueBefore, valueAfter)));
+            }
+        }
+        changes.sort(
+            Comparator.comparing(Change::task)
+                .thenComparing(Change::kind)
+                .thenComparing(Change::key));
+        return changes;
+    }
+
+    private static String hint(final @NotNull String kind, final @NotNull String key, final String before,
+        final String after) {
+        if (before == null || after == null) {
+            return KIND_FILE.equals(kind) && isAbsolute(key)
+                ? "the file is outside the project and Gradle user home, its absolute path differs between machines"
+                : null;
+        }
+        if (KIND_FILE.equals(kind)) {
+            final String normalizedBefore = normalizedHash(before);
+            if (normalizedBefore != null && normalizedBefore.equals(normalizedHash(after))) {
+                return "only archive metadata changed (entry timestamps or order), the contents are identical";
+            }
+            if (key.endsWith("MANIFEST.MF")) {
+                return "manifests often contain build timestamps or version strings";
+            }
+            return null;
+        }
+        if (isAbsolute(before) || isAbsolute(after)) {
+            return "the value contains an absolute path, use a relative path or @PathSensitive(RELATIVE)";
+        }
+        if (looksLikeTimestamp(before) && looksLikeTimestamp(after)) {
+            return "the value looks like a timestamp, it changes on every build";
+        }
+        if (key.toLowerCase(Locale.ROOT)
+            .contains("version")) {
+            return "version strings come from GitVersionModule and change with every commit or dirty working tree";
+        }
+        return null;
+    }
+
+    private static boolean isAbsolute(final @NotNull String value) {
+        return value.startsWith("/") || value.matches("^[A-Za-z]:[\\\\/].*");
+    }
+
+    private static boolean looksLikeTimestamp(final @NotNull String value) {
+        return value.matches("^\\d{10,13}$") || value.matches("^\\d{4}-\\d{2}-\\d{2}[T ]\\d{2}:\\d{2}.*");
+    }
+
+    private static String normalizedHash(final @NotNull String fileValue) {
+        final int idx = fileValue.indexOf(NORMALIZED_SEPARATOR);
+        return idx < 0 ? null : fileValue.substring(idx + NORMALIZED_SEPARATOR.length());
+    }
+
+    private static @NotNull String identity(final @NotNull Entry entry) {
+        return entry.task() + '\t' + entry.kind() + '\t' + entry.key();
+    }
+
+    private static @NotNull String describeValue(final Object value) {
+        final String str = String.valueOf(value);
+        if (str.length() <= MAX_VALUE_LENGTH) {
+            return str;
+        }
+        return HASH_PREFIX + sha256(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static @NotNull String relativize(final @NotNull File file, final @NotNull File projectDir,
+        final @NotNull File gradleUserHome) {
+        final Path path = file.toPath()
+            .toAbsolutePath()
+            .normalize();
+        final Path project = projectDir.toPath()
+            .toAbsolutePath()
+            .normalize();
+        final Path userHome = gradleUserHome.toPath()
+            .toAbsolutePath()
+            .normalize();
+        if (path.startsWith(project)) {
+            return project.relativize(path)
+                .toString()
+                .replace('\\', '/');
+        }
+        if (path.startsWith(userHome)) {
+            return "<gradle user home>/" + userHome.relativize(path)
+                .toString()
+                .replace('\\', '/');
+        }
+        return path.toString();
+    }
+
+    /**
+     * Hashes a file's contents. Archives additionally get a classpath-normalized hash over their sorted entry names
+     * and contents, which ignores entry timestamps and order.
+     */
+    private static @NotNull String fingerprint(final @NotNull Path file) {
+        final MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            digestStream(digest, in);
+        } catch (IOException e) {
+            return "unreadable";
+        }
+        final String raw = HexFormat.of()
+            .formatHex(digest.digest());
+        final String name = file.getFileName()
+            .toString()
+            .toLowerCase(Locale.ROOT);
+        if (!name.endsWith(".jar") && !name.endsWith(".zip")) {
+            return raw;
+        }
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            final List<ZipEntry> zipEntries = new ArrayList<>();
+            final Enumeration<? extends ZipEntry> it = zip.entries();
+            while (it.hasMoreElements()) {
+                final ZipEntry entry = it.nextElement();
+                if (!entry.isDirectory()) {
+                    zipEntries.add(entry);
+                }
+            }
+            zipEntries.sort(Comparator.comparing(ZipEntry::getName));
+            for (final ZipEntry entry : zipEntries) {
+                digest.update(
+                    entry.getName()
+                        .getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = zip.getInputStream(entry)) {
+                    digestStream(digest, in);
+                }
+            }
+            return raw + NORMALIZED_SEPARATOR
+                + HexFormat.of()
+                    .formatHex(digest.digest());
+        } catch (IOException e) {
+            return raw;
+        }
+    }
+
+    private static void digestStream(final @NotNull MessageDigest digest, final @NotNull InputStream in)
+        throws IOException {
+        final byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            digest.update(buffer, 0, read);
+        }
+    }
+
+    private static @NotNull String sha256(final byte @NotNull [] bytes) {
+        return HexFormat.of()
+            .formatHex(newDigest().digest(bytes));
+    }
+
+    private static @NotNull MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static @NotNull String escape(final @NotNull String value) {
+        return value.replace("\\", "\\\\")
+            .replace("\t", "\\t")
+            .replace("\n", "\\n")
+            .replace("\r", "\\r");
+    }
+
+    private static @NotNull String unescape(final @NotNull String value) {
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                final char next = value.charAt(++i);
+                sb.append(
+                    switch (next) {
+                        case 't' -> '\t';
+                        case 'n' -> '\n';
+                        case 'r' -> '\r';
+                        default -> next;
+                    });
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
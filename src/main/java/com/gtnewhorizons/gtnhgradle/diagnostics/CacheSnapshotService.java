@@ -0,0 +1,264 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
+import com.gtnewhorizons.gtnhgradle.tasks.ExplainCacheMissTask;
+import org.gradle.api.Project;
+import org.gradle.api.execution.TaskExecutionGraph;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.services.BuildServiceRegistry;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.gradle.tooling.events.OperationResult;
+import org.gradle.tooling.events.task.TaskFailureResult;
+import org.gradle.tooling.events.task.TaskFinishEvent;
+import org.gradle.tooling.events.task.TaskSuccessResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Per-project service collecting {@link CacheSnapshot} entries of the GTNH-wired tasks executed in this build, and
+ * writing them to {@code build/gtnh/cache-snapshots/<timestamp>-<build id>.tsv} when the build finishes.
+ * Entries are captured by a {@link TaskCapture} listener per tracked task once the task finished, so the tasks keep
+ * their actions and cache keys, and only tasks that actually executed (missed the cache or weren't up-to-date) are
+ * fingerprinted.
+ */
+public abstract class CacheSnapshotService
+    implements BuildService<CacheSnapshotService.Parameters>, AutoCloseable {
+
+    /** Name of the root project's service registration, other projects append their path */
+    public static final String SERVICE_NAME = "gtnhCacheSnapshots";
+
+    /** Prefix of the {@link TaskCapture} registrations, followed by the task path */
+    public static final String CAPTURE_SERVICE_NAME = "gtnhCacheSnapshotCapture";
+
+    /** Number of most recent snapshots kept per project */
+    public static final int MAX_SNAPSHOTS = 20;
+
+    /** Service parameters */
+    public interface Parameters extends BuildServiceParameters {
+
+        /** @return Directory holding the project's snapshots */
+        DirectoryProperty getSnapshotDirectory();
+    }
+
+    // Sortable by time, and unique even for builds started within the same millisecond
+    private final String snapshotName = LocalDateTime.now()
+        .format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")) + "-"
+        + UUID.randomUUID()
+            .toString()
+            .substring(0, 8);
+    private final Queue<CacheSnapshot.Entry> entries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param prefix The registration name prefix
+     * @param path   A project or task path
+     * @return The name of the registration for the given path
+     */
+    public static @NotNull String serviceName(final @NotNull String prefix, final @NotNull String path) {
+        return path.equals(":") ? prefix : prefix + path.replace(':', '.');
+    }
+
+    /**
+     * Registers the {@code gtnhExplainCacheMiss} task, and if {@code gtnh.cacheSnapshots} is set, fingerprints the
+     * tracked tasks of the project once they executed.
+     *
+     * @param project The project
+     * @param gtnh    The project's GTNH extension
+     */
+    public static void register(final @NotNull Project project, final @NotNull GTNHGradlePlugin.GTNHExtension gtnh) {
+        final File snapshotDir = project.getLayout()
+            .getBuildDirectory()
+            .dir(CacheSnapshot.SNAPSHOT_DIR)
+            .get()
+            .getAsFile();
+        project.getTasks()
+            .register("gtnhExplainCacheMiss", ExplainCacheMissTask.class, t -> {
+                t.getSnapshotDirectory()
+                    .set(snapshotDir);
+            });
+        if (!gtnh.configuration.cacheSnapshots) {
+            return;
+        }
+
+        final BuildServiceRegistry services = project.getGradle()
+            .getSharedServices();
+        final Provider<CacheSnapshotService> snapshots = services
+            .registerIfAbsent(serviceName(SERVICE_NAME, project.getPath()), CacheSnapshotService.class, spec -> {
+                spec.getParameters()
+                    .getSnapshotDirectory()
+                    .set(snapshotDir);
+            });
+        final File projectDir = project.getProjectDir();
+        final File gradleUserHome = project.getGradle()
+            .getGradleUserHomeDir();
+        final TaskExecutionGraph graph = project.getGradle()
+            .getTaskGraph();
+        project.getTasks()
+            .configureEach(t -> {
+                if (!BuildMetricsService.TRACKED_TASKS.contains(t.getName())) {
+                    return;
+                }
+                final Provider<TaskCapture> capture = services
+                    .registerIfAbsent(serviceName(CAPTURE_SERVICE_NAME, t.getPath()), TaskCapture.class, spec -> {
+                        final TaskCapture.Parameters params = spec.getParameters();
+                        params.getSnapshots()
+                            .set(snapshots);
+                        params.getTaskPath()
+                            .set(t.getPath());
+                        // Only evaluated once the task graph is ready, and only for scheduled tasks
+                        params.getDescription()
+                            .set(
+                                project.getProviders()
+                                    .provider(
+                                        () -> graph.hasTask(t) ? CacheSnapshot.describe(t)
+                                            .stream()
+                                            .map(CacheSnapshot.Entry::toLine)
+                                            .toList() : List.of()));
+                        params.getInputFiles()
+                            .from(
+                                t.getInputs()
+                                    .getFiles());
+                        params.getProjectDirectory()
+                            .set(projectDir);
+                        params.getGradleUserHome()
+                            .set(gradleUserHome);
+                    });
+                gtnh.getBuildEventsListenerRegistry()
+                    .onTaskCompletion(capture);
+            });
+    }
+
+    /**
+     * Listens for a single tracked task to finish, and fingerprints its inputs into the project's
+     * {@link CacheSnapshotService} if it executed. The input files are only resolved at that point, so files generated
+     * by earlier tasks in the same build are included.
+     */
+    public abstract static class TaskCapture
+        implements BuildService<TaskCapture.Parameters>, OperationCompletionListener {
+
+        /** Service parameters */
+        public interface Parameters extends BuildServiceParameters {
+
+            /** @return The project's snapshot service */
+            Property<CacheSnapshotService> getSnapshots();
+
+            /** @return Path of the captured task */
+            Property<String> getTaskPath();
+
+            /** @return The task's implementation and property entries, as snapshot lines */
+            ListProperty<String> getDescription();
+
+            /** @return The task's input files */
+            ConfigurableFileCollection getInputFiles();
+
+            /** @return The project directory */
+            DirectoryProperty getProjectDirectory();
+
+            /** @return The Gradle user home */
+            DirectoryProperty getGradleUserHome();
+        }
+
+        @Override
+        public void onFinish(final FinishEvent event) {
+            if (!(event instanceof TaskFinishEvent taskEvent) || !executed(taskEvent.getResult())) {
+                return;
+            }
+            final Parameters params = getParameters();
+            if (!taskEvent.getDescriptor()
+                .getTaskPath()
+                .equals(
+                    params.getTaskPath()
+                        .get())) {
+                return;
+            }
+            final List<CacheSnapshot.Entry> taskEntries = new ArrayList<>();
+            for (final String line : params.getDescription()
+                .get()) {
+                final CacheSnapshot.Entry entry = CacheSnapshot.parse(line);
+                if (entry != null) {
+                    taskEntries.add(entry);
+                }
+            }
+            taskEntries.addAll(
+                CacheSnapshot.fingerprintFiles(
+                    params.getTaskPath()
+                        .get(),
+                    params.getInputFiles(),
+                    params.getProjectDirectory()
+                        .get()
+                        .getAsFile(),
+                    params.getGradleUserHome()
+                        .get()
+                        .getAsFile()));
+            params.getSnapshots()
+                .get()
+                .add(taskEntries);
+        }
+
+        private static boolean executed(final OperationResult result) {
+            if (result instanceof TaskSuccessResult success) {
+                return !success.isUpToDate() && !success.isFromCache();
+            }
+            return result instanceof TaskFailureResult;
+        }
+    }
+
+    private void add(final @NotNull List<CacheSnapshot.Entry> taskEntries) {
+        entries.addAll(taskEntries);
+    }
+
+    @Override
+    public void close() {
+        if (entries.isEmpty()) {
+            return;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append("# GTNH cache snapshot ")
+            .append(snapshotName)
+            .append('\n');
+        entries.forEach(
+            e -> sb.append(e.toLine())
+                .append('\n'));
+        final Path dirPath = getParameters().getSnapshotDirectory()
+            .get()
+            .getAsFile()
+            .toPath();
+        ReportWriter.write(dirPath.resolve(snapshotName + CacheSnapshot.EXTENSION), sb.toString());
+        pruneOldSnapshots(dirPath);
+    }
+
+    private static void pruneOldSnapshots(final @NotNull Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            final List<Path> snapshots = files.filter(
+                p -> p.getFileName()
+                    .toString()
+                    .endsWith(CacheSnapshot.EXTENSION))
+                .sorted()
+                .toList();
+            for (int i = 0; i < snapshots.size() - MAX_SNAPSHOTS; i++) {
+                Files.deleteIfExists(snapshots.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prune cache snapshots in " + dir, e);
+        }
+    }
+}
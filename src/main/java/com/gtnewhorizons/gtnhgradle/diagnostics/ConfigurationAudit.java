@@ -0,0 +1,186 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Audits work that should have stayed lazy during project configuration. Every task realized while the project is
+ * evaluating, including its afterEvaluate callbacks, is recorded and attributed to the innermost plugin or build script
+ * stack frame that caused it, along with the GTNH module that was applying at the time.
+ * The report is written to {@code build/gtnh/eager-configuration.json}; findings caused by GTNHGradle or build scripts
+ * are logged as warnings, or fail the build in {@link Mode#FAIL} mode. Findings caused by other plugins alone are only
+ * reported, since they can't be fixed from a buildscript.
+ */
+public final class ConfigurationAudit {
+
+    /** Location of the JSON report, relative to the project build directory */
+    public static final String REPORT_PATH = "gtnh/eager-configuration.json";
+
+    private final Project project;
+    private final Logger logger;
+    private final ConfigurationProfiler profiler;
+    private final Mode mode;
+    private final List<Finding> findings = new ArrayList<>();
+    private boolean configuring = true;
+
+    /** What to do with findings attributed to GTNHGradle or build scripts */
+    public enum Mode {
+
+        /** Don't audit */
+        OFF(""),
+        /** Log a warning per finding */
+        WARN("warn"),
+        /** Fail the build once the project is evaluated */
+        FAIL("fail");
+
+        private final String propertyValue;
+
+        Mode(@NotNull String propertyValue) {
+            this.propertyValue = propertyValue;
+        }
+
+        /** The property value string for this mode */
+        public @NotNull String getPropertyValue() {
+            return propertyValue;
+        }
+
+        /**
+         * @param value The property value
+         * @return The parsed mode
+         * @throws IllegalArgumentException If the value is not a valid mode
+         */
+        public static @NotNull Mode fromString(@NotNull String value) {
+            for (final Mode mode : values()) {
+                if (mode.propertyValue.equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException(
+                "Invalid value for gtnh.auditEagerConfiguration: '" + value
+                    + "'. "
+                    + "Valid values are: (empty), warn, fail");
+        }
+    }
+
+    /**
+     * Something that was evaluated eagerly during configuration.
+     *
+     * @param kind    What was evaluated, e.g. "task"
+     * @param subject The path or name of the evaluated object
+     * @param module  The GTNH module or script responsible, or the module applying at the time for other plugins
+     * @param frame   The stack frame that triggered the evaluation, or "(other plugin)"
+     * @param owned   Whether the frame belongs to GTNHGradle or a build script, and so can be fixed by us
+     */
+    public record Finding(@NotNull String kind, @NotNull String subject, @NotNull String module, @NotNull String frame,
+        boolean owned) {
+
+        @Override
+        public @NotNull String toString() {
+            return kind + " " + subject + " by " + module + " at " + frame;
+        }
+    }
+
+    /**
+     * For internal use only.
+     *
+     * @param project  The project to audit
+     * @param logger   The logger to report findings to
+     * @param profiler The profiler tracking the module being applied
+     * @param mode     The audit mode, must not be {@link Mode#OFF}
+     */
+    public ConfigurationAudit(final @NotNull Project project, final @NotNull Logger logger,
+        final @NotNull ConfigurationProfiler profiler, final @NotNull Mode mode) {
+        this.project = project;
+        this.logger = logger;
+        this.profiler = profiler;
+        this.mode = mode;
+        project.getTasks()
+            .configureEach(t -> record("task", t.getPath()));
+        // Registered again from afterEvaluate so that it runs after the callbacks of modules and build scripts
+        project.afterEvaluate(p -> p.afterEvaluate(_p -> report()));
+    }
+
+    /**
+     * Records an eager evaluation if the project is still configuring, attributing it to the current call stack.
+     *
+     * @param kind    What was evaluated, e.g. "task"
+     * @param subject The path or name of the evaluated object
+     */
+    public void record(final @NotNull String kind, final @NotNull String subject) {
+        if (!configuring) {
+            return;
+        }
+        final StackAttribution culprit = StackAttribution.ofCurrentStack(profiler.currentScope());
+        findings.add(new Finding(kind, subject, culprit.module(), culprit.frame(), culprit.owned()));
+    }
+
+    /** @return The findings recorded so far, in order */
+    public @NotNull List<Finding> getFindings() {
+        return List.copyOf(findings);
+    }
+
+    private void report() {
+        configuring = false;
+        final Path target = project.getLayout()
+            .getBuildDirectory()
+            .file(REPORT_PATH)
+            .get()
+            .getAsFile()
+            .toPath();
+        ReportWriter.write(target, toJson());
+
+        final List<Finding> owned = findings.stream()
+            .filter(Finding::owned)
+            .toList();
+        if (owned.isEmpty()) {
+            logger.info("No eager configuration attributed to GTNHGradle or build scripts in {}", project.getPath());
+            return;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Eager configuration in ")
+            .append(project.getPath())
+            .append(" (")
+            .append(owned.size())
+            .append(" findings, full report in ")
+            .append(target)
+            .append("):");
+        for (final Finding finding : owned) {
+            sb.append("\n  ")
+                .append(finding);
+        }
+        if (mode == Mode.FAIL) {
+            throw new GradleException(sb.toString());
+        }
+        logger.warn(sb.toString());
+    }
+
+    private @NotNull String toJson() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"project\": ")
+            .append(ReportWriter.jsonString(project.getPath()))
+            .append(",\n  \"findings\": [");
+        for (int i = 0; i < findings.size(); i++) {
+            final Finding f = findings.get(i);
+            sb.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"kind\": ")
+                .append(ReportWriter.jsonString(f.kind()))
+                .append(", \"subject\": ")
+                .append(ReportWriter.jsonString(f.subject()))
+                .append(", \"module\": ")
+                .append(ReportWriter.jsonString(f.module()))
+                .append(", \"frame\": ")
+                .append(ReportWriter.jsonString(f.frame()))
+                .append(", \"owned\": ")
+                .append(f.owned())
+                .append('}');
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+}
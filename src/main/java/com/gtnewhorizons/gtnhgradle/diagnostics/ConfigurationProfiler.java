@@ -0,0 +1,257 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how much each GTNH module costs during project configuration: wall time, bytes allocated on the
+ * configuring thread, tasks realized and configurations created while the module was applying.
+ * When {@code gtnh.profileConfiguration} is set, the report is written to
+ * {@code build/gtnh/configuration-profile.json} once the project is evaluated and a readable summary is logged.
+ * When the build is traced, module applications and callbacks wrapped with {@link #traced(String, Action)} are also
+ * recorded as {@link BuildTrace} spans.
+ */
+public final class ConfigurationProfiler {
+
+    /** Location of the JSON report, relative to the project build directory */
+    public static final String REPORT_PATH = "gtnh/configuration-profile.json";
+
+    private final Project project;
+    private final Logger logger;
+    private final boolean enabled;
+    private final @Nullable String traceKey;
+    private final AtomicLong realizedTasks = new AtomicLong();
+    private final AtomicLong createdConfigurations = new AtomicLong();
+    private final List<ModuleProfile> profiles = new ArrayList<>();
+    private final Deque<String> scopes = new ArrayDeque<>();
+
+    /**
+     * Measurements taken while applying a single module.
+     *
+     * @param name                  The module name
+     * @param wallNanos             Wall time spent in the module's apply function
+     * @param allocatedBytes        Bytes allocated by the configuring thread, or -1 if the JVM can't measure it
+     * @param tasksRealized         Number of tasks realized while applying
+     * @param configurationsCreated Number of configurations created while applying
+     */
+    public record ModuleProfile(@NotNull String name, long wallNanos, long allocatedBytes, long tasksRealized,
+        long configurationsCreated) {}
+
+    /**
+     * For internal use only.
+     *
+     * @param project The project being profiled
+     * @param logger  The logger to print the summary to
+     * @param enabled Whether to write the report and print a summary once the project is evaluated
+     * @param traced  Whether to record {@link BuildTrace} spans, for the trace or the performance history
+     */
+    public ConfigurationProfiler(final @NotNull Project project, final @NotNull Logger logger, final boolean enabled,
+        final boolean traced) {
+        this.project = project;
+        this.logger = logger;
+        this.enabled = enabled;
+        this.traceKey = traced ? project.getBuildTreePath() : null;
+        if (traceKey != null) {
+            BuildTrace.reset(traceKey);
+        }
+        if (enabled) {
+            // Only counted for the report, every realized task and created configuration pays for the action
+            project.getTasks()
+                .configureEach(t -> realizedTasks.incrementAndGet());
+            project.getConfigurations()
+                .configureEach(c -> createdConfigurations.incrementAndGet());
+            project.afterEvaluate(p -> p.afterEvaluate(_p -> report()));
+        }
+    }
+
+    /**
+     * Runs a module's apply function, recording its cost.
+     *
+     * @param name   The module name
+     * @param action The apply function
+     * @throws Throwable Rethrows anything thrown by the action
+     */
+    public void profile(final @NotNull String name, final @NotNull ProfiledAction action) throws Throwable {
+        final long tasksBefore = realizedTasks.get();
+        final long configurationsBefore = createdConfigurations.get();
+        final long allocBefore = currentThreadAllocatedBytes();
+        final long startMicros = BuildTrace.nowMicros();
+        final long start = System.nanoTime();
+        scopes.push(name);
+        try {
+            action.run();
+        } finally {
+            scopes.pop();
+            final long wall = System.nanoTime() - start;
+            final long allocAfter = currentThreadAllocatedBytes();
+            if (traceKey != null) {
+                BuildTrace.record(traceKey, name, "module", startMicros);
+            }
+            if (enabled) {
+                profiles.add(
+                    new ModuleProfile(
+                        name,
+                        wall,
+                        (allocBefore < 0 || allocAfter < 0) ? -1 : allocAfter - allocBefore,
+                        realizedTasks.get() - tasksBefore,
+                        createdConfigurations.get() - configurationsBefore));
+            }
+        }
+    }
+
+    /**
+     * Wraps a configuration-time callback, such as an afterEvaluate action, so that it shows up in the build trace.
+     *
+     * @param name   The span name, conventionally {@code ModuleName.callback}
+     * @param action The callback
+     * @param <T>    The callback argument type
+     * @return The wrapped callback
+     */
+    public <T> @NotNull Action<T> traced(final @NotNull String name, final @NotNull Action<T> action) {
+        return arg -> {
+            final long startMicros = BuildTrace.nowMicros();
+            scopes.push(name);
+            try {
+                action.execute(arg);
+            } finally {
+                scopes.pop();
+                if (traceKey != null) {
+                    BuildTrace.record(traceKey, name, "callback", startMicros);
+                }
+            }
+        };
+    }
+
+    /** @return The name of the module or traced callback currently running, or null outside of them */
+    public @Nullable String currentScope() {
+        return scopes.peek();
+    }
+
+    /** @return The profiles recorded so far, in application order, empty unless profiling is enabled */
+    public @NotNull List<ModuleProfile> getProfiles() {
+        return List.copyOf(profiles);
+    }
+
+    /** A module apply function */
+    @FunctionalInterface
+    public interface ProfiledAction {
+
+        /**
+         * Runs the action
+         *
+         * @throws Throwable Any exception
+         */
+        void run() throws Throwable;
+    }
+
+    private void report() {
+        if (profiles.isEmpty()) {
+            return;
+        }
+        final Path target = project.getLayout()
+            .getBuildDirectory()
+            .file(REPORT_PATH)
+            .get()
+            .getAsFile()
+            .toPath();
+        ReportWriter.write(target, toJson(project.getPath(), profiles));
+        logger.lifecycle(toSummary(project.getPath(), profiles));
+    }
+
+    /**
+     * @param projectPath The profiled project
+     * @param profiles    The module profiles
+     * @return The JSON report, listing modules in application order
+     */
+    public static @NotNull String toJson(final @NotNull String projectPath,
+        final @NotNull List<ModuleProfile> profiles) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"project\": ")
+            .append(ReportWriter.jsonString(projectPath))
+            .append(",\n  \"modules\": [");
+        for (int i = 0; i < profiles.size(); i++) {
+            final ModuleProfile p = profiles.get(i);
+            sb.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"name\": ")
+                .append(ReportWriter.jsonString(p.name()))
+                .append(", \"wallMillis\": ")
+                .append(ReportWriter.millis(p.wallNanos()))
+                .append(", \"allocatedBytes\": ")
+                .append(p.allocatedBytes())
+                .append(", \"tasksRealized\": ")
+                .append(p.tasksRealized())
+                .append(", \"configurationsCreated\": ")
+                .append(p.configurationsCreated())
+                .append('}');
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * @param projectPath The profiled project
+     * @param profiles    The module profiles
+     * @return A readable table of the modules, slowest first, with the total time
+     */
+    public static @NotNull String toSummary(final @NotNull String projectPath,
+        final @NotNull List<ModuleProfile> profiles) {
+        final List<ModuleProfile> sorted = new ArrayList<>(profiles);
+        sorted.sort(
+            Comparator.comparingLong(ModuleProfile::wallNanos)
+                .reversed());
+        final long total = sorted.stream()
+            .mapToLong(ModuleProfile::wallNanos)
+            .sum();
+        final StringBuilder sb = new StringBuilder();
+        sb.append(
+            String.format(
+                Locale.ROOT,
+                "GTNH module configuration profile for %s (%s ms total):%n",
+                projectPath,
+                ReportWriter.millis(total)));
+        sb.append(
+            String.format(
+                Locale.ROOT,
+                "  %-36s %10s %12s %7s %8s%n",
+                "Module",
+                "Time (ms)",
+                "Alloc (MiB)",
+                "Tasks",
+                "Configs"));
+        for (final ModuleProfile p : sorted) {
+            sb.append(
+                String.format(
+                    Locale.ROOT,
+                    "  %-36s %10s %12s %7d %8d%n",
+                    p.name(),
+                    ReportWriter.millis(p.wallNanos()),
+                    p.allocatedBytes() < 0 ? "n/a"
+                        : String.format(Locale.ROOT, "%.1f", p.allocatedBytes() / (1024.0 * 1024.0)),
+                    p.tasksRealized(),
+                    p.configurationsCreated()));
+        }
+        return sb.toString();
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemoryEnabled()) {
+            return sunBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,169 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Memory samples of the Gradle daemon, kept in static state so that they survive across the builds run by one daemon
+ * for as long as the plugin classloader is reused. The history restarting on every build means Gradle reloads the
+ * plugin classes each time, which is a leak source of its own.
+ */
+public final class DaemonMemory {
+
+    /** Number of most recent samples kept */
+    public static final int MAX_SAMPLES = 200;
+
+    /** Classes from these packages, and classloaders, are kept in the filtered class histogram */
+    public static final Pattern HISTOGRAM_FILTER = Pattern.compile(
+        "com\\.gtnewhorizons\\.|com\\.diffplug\\.|de\\.undercouch\\.|com\\.palantir\\.|xyz\\.wagyourtail\\."
+            + "|com\\.github\\.jengelman\\.|com\\.gradleup\\.|ClassLoader");
+
+    private static final List<Sample> HISTORY = new ArrayList<>();
+    private static int builds = 0;
+
+    private DaemonMemory() {}
+
+    /**
+     * A memory sample.
+     *
+     * @param build           Number of the build in this daemon, starting at 1
+     * @param phase           "start" or "end"
+     * @param heapUsed        Used heap bytes
+     * @param heapCommitted   Committed heap bytes
+     * @param metaspaceUsed   Used metaspace bytes, or -1 if the JVM has no metaspace pool
+     * @param loadedClasses   Currently loaded classes
+     * @param unloadedClasses Classes unloaded since the JVM started
+     */
+    public record Sample(int build, @NotNull String phase, long heapUsed, long heapCommitted, long metaspaceUsed,
+        int loadedClasses, long unloadedClasses) {
+
+        @Override
+        public @NotNull String toString() {
+            return String.format(
+                Locale.ROOT,
+                "build #%d %s: heap %d/%d MiB, metaspace %s MiB, %d classes loaded (%d unloaded)",
+                build,
+                phase,
+                heapUsed >> 20,
+                heapCommitted >> 20,
+                metaspaceUsed < 0 ? "n/a" : Long.toString(metaspaceUsed >> 20),
+                loadedClasses,
+                unloadedClasses);
+        }
+    }
+
+    /** @return The number of the new build */
+    public static synchronized int startBuild() {
+        return ++builds;
+    }
+
+    /**
+     * Samples the current memory state and adds it to the history.
+     *
+     * @param build The build number from {@link #startBuild()}
+     * @param phase "start" or "end"
+     * @return The sample
+     */
+    public static @NotNull Sample sample(final int build, final @NotNull String phase) {
+        final MemoryUsage heap = ManagementFactory.getMemoryMXBean()
+            .getHeapMemoryUsage();
+        long metaspace = -1;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                metaspace = pool.getUsage()
+                    .getUsed();
+            }
+        }
+        final ClassLoadingMXBean classes = ManagementFactory.getClassLoadingMXBean();
+        final Sample sample = new Sample(
+            build,
+            phase,
+            heap.getUsed(),
+            heap.getCommitted(),
+            metaspace,
+            classes.getLoadedClassCount(),
+            classes.getUnloadedClassCount());
+        synchronized (DaemonMemory.class) {
+            HISTORY.add(sample);
+            if (HISTORY.size() > MAX_SAMPLES) {
+                HISTORY.removeFirst();
+            }
+        }
+        return sample;
+    }
+
+    /** @return All samples taken in this daemon, oldest first */
+    public static synchronized @NotNull List<Sample> history() {
+        return List.copyOf(HISTORY);
+    }
+
+    /**
+     * Compares the end-of-build samples of the first and last recorded builds.
+     *
+     * @param history        Samples, oldest first
+     * @param thresholdBytes Metaspace growth beyond which the daemon is considered leaking
+     * @return A description of the growth if it exceeds the threshold, null otherwise
+     */
+    public static String findGrowth(final @NotNull List<Sample> history, final long thresholdBytes) {
+        final List<Sample> ends = history.stream()
+            .filter(s -> s.phase()
+                .equals("end"))
+            .toList();
+        if (ends.size() < 2) {
+            return null;
+        }
+        final Sample first = ends.getFirst();
+        final Sample last = ends.getLast();
+        if (first.metaspaceUsed() < 0 || last.metaspaceUsed() - first.metaspaceUsed() <= thresholdBytes) {
+            return null;
+        }
+        return String.format(
+            Locale.ROOT,
+            "Metaspace grew by %d MiB and loaded classes by %d over %d builds in this daemon (build #%d to #%d)",
+            (last.metaspaceUsed() - first.metaspaceUsed()) >> 20,
+            last.loadedClasses() - first.loadedClasses(),
+            ends.size(),
+            first.build(),
+            last.build());
+    }
+
+    /**
+     * Takes a class histogram of live objects through the HotSpot diagnostic command MBean. This triggers a full GC.
+     *
+     * @return The histogram lines matching {@link #HISTOGRAM_FILTER}, with the header, or an explanation if the JVM
+     *         doesn't support it
+     */
+    public static @NotNull String filteredClassHistogram() {
+        final String histogram;
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            histogram = (String) server.invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                "gcClassHistogram",
+                new Object[] { new String[0] },
+                new String[] { String[].class.getName() });
+        } catch (Exception e) {
+            return "Class histogram not available on this JVM: " + e;
+        }
+        final StringBuilder sb = new StringBuilder();
+        final String[] lines = histogram.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            if (i < 2 || HISTOGRAM_FILTER.matcher(lines[i])
+                .find()) {
+                sb.append(lines[i])
+                    .append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.services.BuildServiceRegistry;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * Opt-in build-wide service sampling the daemon's heap, metaspace and loaded classes when the build starts executing
+ * and when it finishes, keeping the samples in {@link DaemonMemory} across builds of the same daemon. Warns when
+ * metaspace grew beyond {@code gtnh.daemonMemory.thresholdMiB} since the first build, and optionally writes a class
+ * histogram filtered to GTNHGradle, RFG, plugin classes and classloaders to {@code build/gtnh/memory/}.
+ */
+public abstract class DaemonMemoryService implements BuildService<DaemonMemoryService.Parameters>,
+    OperationCompletionListener, AutoCloseable {
+
+    /** Name of the shared service registration */
+    public static final String SERVICE_NAME = "gtnhDaemonMemory";
+
+    /** Location of the histogram directory, relative to the project build directory */
+    public static final String HISTOGRAM_DIR = "gtnh/memory";
+
+    private static final Logger LOGGER = Logging.getLogger(DaemonMemoryService.class);
+
+    /** Service parameters, set by the first project registering the service */
+    public interface Parameters extends BuildServiceParameters {
+
+        /** @return Metaspace growth in MiB beyond which a warning is printed */
+        Property<Integer> getThresholdMiB();
+
+        /** @return Whether to write a filtered class histogram at the end of each build */
+        Property<Boolean> getHistogram();
+
+        /** @return Absolute path of the histogram directory */
+        Property<String> getHistogramDirectory();
+    }
+
+    private final int build;
+
+    /** For dependency injection */
+    public DaemonMemoryService() {
+        build = DaemonMemory.startBuild();
+        LOGGER.info("GTNH daemon memory at {}", DaemonMemory.sample(build, "start"));
+    }
+
+    /**
+     * Registers the shared service if {@code gtnh.daemonMemory} is set.
+     *
+     * @param project The project being configured
+     * @param gtnh    The project's GTNH extension
+     */
+    public static void register(final @NotNull Project project, final @NotNull GTNHGradlePlugin.GTNHExtension gtnh) {
+        if (!gtnh.configuration.daemonMemory) {
+            return;
+        }
+        final BuildServiceRegistry services = project.getGradle()
+            .getSharedServices();
+        if (services.getRegistrations()
+            .findByName(SERVICE_NAME) != null) {
+            return;
+        }
+        final Provider<DaemonMemoryService> service = services
+            .registerIfAbsent(SERVICE_NAME, DaemonMemoryService.class, spec -> {
+                spec.getParameters()
+                    .getThresholdMiB()
+                    .set(gtnh.configuration.daemonMemoryThresholdMiB);
+                spec.getParameters()
+                    .getHistogram()
+                    .set(gtnh.configuration.daemonMemoryHistogram);
+                spec.getParameters()
+                    .getHistogramDirectory()
+                    .set(
+                        project.getLayout()
+                            .getBuildDirectory()
+                            .dir(HISTOGRAM_DIR)
+                            .map(
+                                d -> d.getAsFile()
+                                    .getAbsolutePath()));
+            });
+        // Subscribing makes Gradle create the service when execution starts and close it when the build finishes
+        gtnh.getBuildEventsListenerRegistry()
+            .onTaskCompletion(service);
+    }
+
+    @Override
+    public void onFinish(final FinishEvent event) {}
+
+    @Override
+    public void close() {
+        final DaemonMemory.Sample end = DaemonMemory.sample(build, "end");
+        LOGGER.lifecycle("GTNH daemon memory at {}", end);
+        final long thresholdBytes = getParameters().getThresholdMiB()
+            .get() * 1024L * 1024L;
+        final String growth = DaemonMemory.findGrowth(DaemonMemory.history(), thresholdBytes);
+        if (growth != null) {
+            LOGGER.warn(
+                "{}. The daemon may be leaking classloaders, run with -Pgtnh.daemonMemory.histogram=true to see what"
+                    + " is retained, or restart it with ./gradlew --stop",
+                growth);
+        }
+        if (getParameters().getHistogram()
+            .get()) {
+            final Path target = Path.of(
+                getParameters().getHistogramDirectory()
+                    .get())
+                .resolve("histogram-build" + build + ".txt");
+            ReportWriter.write(target, DaemonMemory.filteredClassHistogram());
+            LOGGER.lifecycle("Wrote filtered class histogram to {}", target);
+        }
+    }
+}
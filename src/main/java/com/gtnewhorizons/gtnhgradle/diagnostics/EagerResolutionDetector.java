@@ -0,0 +1,187 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ResolvableDependencies;
+import org.gradle.api.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects dependency configurations resolved while the project is evaluating, including its afterEvaluate callbacks,
+ * which includes iterating their files from build logic. Each resolution is timed and attributed to the GTNH module or
+ * build script that triggered it.
+ * Project and buildscript configurations are watched automatically, detached configurations created by GTNHGradle are
+ * registered through {@link #watch(Configuration)}. Configurations already resolved when they are watched, like the
+ * buildscript classpath that loaded GTNHGradle itself, are skipped.
+ * Findings are logged as warnings and written to {@code build/gtnh/eager-resolution.json}.
+ */
+public final class EagerResolutionDetector {
+
+    /** Location of the JSON report, relative to the project build directory */
+    public static final String REPORT_PATH = "gtnh/eager-resolution.json";
+
+    private final Project project;
+    private final Logger logger;
+    private final ConfigurationProfiler profiler;
+    private final boolean enabled;
+    private final Map<String, Long> started = new ConcurrentHashMap<>();
+    private final List<Resolution> resolutions = new ArrayList<>();
+    private volatile boolean configuring = true;
+
+    /**
+     * A configuration resolved during configuration.
+     *
+     * @param configuration The configuration path
+     * @param module        The GTNH module or script responsible, or the module applying at the time for other plugins
+     * @param frame         The stack frame that triggered the resolution, or "(other plugin)"
+     * @param owned         Whether the frame belongs to GTNHGradle or a build script
+     * @param nanos         Time spent resolving
+     */
+    public record Resolution(@NotNull String configuration, @NotNull String module, @NotNull String frame,
+        boolean owned, long nanos) {
+
+        @Override
+        public @NotNull String toString() {
+            return String.format(
+                Locale.ROOT,
+                "%s resolved in %s ms by %s at %s",
+                configuration,
+                ReportWriter.millis(nanos),
+                module,
+                frame);
+        }
+    }
+
+    /**
+     * For internal use only.
+     *
+     * @param project  The project to watch
+     * @param logger   The logger to report findings to
+     * @param profiler The profiler tracking the module being applied
+     * @param enabled  Whether to detect anything, {@link #watch(Configuration)} does nothing otherwise
+     */
+    public EagerResolutionDetector(final @NotNull Project project, final @NotNull Logger logger,
+        final @NotNull ConfigurationProfiler profiler, final boolean enabled) {
+        this.project = project;
+        this.logger = logger;
+        this.profiler = profiler;
+        this.enabled = enabled;
+        if (!enabled) {
+            return;
+        }
+        project.getConfigurations()
+            .configureEach(this::watch);
+        project.getBuildscript()
+            .getConfigurations()
+            .configureEach(this::watch);
+        // Registered again from afterEvaluate so that it runs after the callbacks of modules and build scripts
+        project.afterEvaluate(p -> p.afterEvaluate(_p -> report()));
+    }
+
+    /**
+     * Watches a configuration that isn't part of the project or buildscript configuration containers, such as a
+     * detached configuration. Does nothing if the configuration is already resolved.
+     *
+     * @param configuration The configuration to watch
+     */
+    public void watch(final @NotNull Configuration configuration) {
+        if (!enabled || configuration.getState() != Configuration.State.UNRESOLVED) {
+            return;
+        }
+        configuration.getIncoming()
+            .beforeResolve(this::beforeResolve);
+        configuration.getIncoming()
+            .afterResolve(this::afterResolve);
+    }
+
+    /** @return The resolutions detected so far, in order */
+    public synchronized @NotNull List<Resolution> getResolutions() {
+        return List.copyOf(resolutions);
+    }
+
+    private void beforeResolve(final @NotNull ResolvableDependencies incoming) {
+        if (configuring) {
+            started.put(incoming.getPath(), System.nanoTime());
+        }
+    }
+
+    private void afterResolve(final @NotNull ResolvableDependencies incoming) {
+        final Long start = started.remove(incoming.getPath());
+        if (start == null || !configuring) {
+            return;
+        }
+        final long nanos = System.nanoTime() - start;
+        final StackAttribution culprit = StackAttribution.ofCurrentStack(profiler.currentScope());
+        synchronized (this) {
+            resolutions
+                .add(new Resolution(incoming.getPath(), culprit.module(), culprit.frame(), culprit.owned(), nanos));
+        }
+    }
+
+    private synchronized void report() {
+        configuring = false;
+        final Path target = project.getLayout()
+            .getBuildDirectory()
+            .file(REPORT_PATH)
+            .get()
+            .getAsFile()
+            .toPath();
+        ReportWriter.write(target, toJson());
+        if (resolutions.isEmpty()) {
+            return;
+        }
+
+        final List<Resolution> sorted = new ArrayList<>(resolutions);
+        sorted.sort(
+            Comparator.comparingLong(Resolution::nanos)
+                .reversed());
+        final long total = sorted.stream()
+            .mapToLong(Resolution::nanos)
+            .sum();
+        final StringBuilder sb = new StringBuilder();
+        sb.append(
+            String.format(
+                Locale.ROOT,
+                "%d configurations of %s were resolved while evaluating the project, taking %s ms:",
+                sorted.size(),
+                project.getPath(),
+                ReportWriter.millis(total)));
+        for (final Resolution resolution : sorted) {
+            sb.append("\n  ")
+                .append(resolution);
+        }
+        logger.warn(sb.toString());
+    }
+
+    private @NotNull String toJson() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"project\": ")
+            .append(ReportWriter.jsonString(project.getPath()))
+            .append(",\n  \"resolutions\": [");
+        for (int i = 0; i < resolutions.size(); i++) {
+            final Resolution r = resolutions.get(i);
+            sb.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"configuration\": ")
+                .append(ReportWriter.jsonString(r.configuration()))
+                .append(", \"millis\": ")
+                .append(ReportWriter.millis(r.nanos()))
+                .append(", \"module\": ")
+                .append(ReportWriter.jsonString(r.module()))
+                .append(", \"frame\": ")
+                .append(ReportWriter.jsonString(r.frame()))
+                .append(", \"owned\": ")
+                .append(r.owned())
+                .append('}');
+        }
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+}
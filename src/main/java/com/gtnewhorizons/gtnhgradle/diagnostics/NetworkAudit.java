@@ -0,0 +1,100 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Records outbound network calls made by GTNHGradle code paths, with their latency and whether they ran while the
+ * build was still configuring and so blocked configuration.
+ * Calls are handed to the {@link NetworkAuditService} of the running build, which prints them at the end of the build.
+ * The static helpers making them, like {@code deobf}, have no access to build services, so the service makes itself
+ * known here while it is alive. Without {@code gtnh.auditNetwork} there is no service and nothing is recorded.
+ */
+public final class NetworkAudit {
+
+    private static volatile NetworkAuditService active;
+
+    private NetworkAudit() {}
+
+    /**
+     * A finished network call.
+     *
+     * @param source               The GTNHGradle component making the call
+     * @param target               The URL or dependency fetched
+     * @param nanos                Latency of the call
+     * @param blockedConfiguration Whether the call ran before the task graph was ready
+     * @param failure              The exception class name if the call failed, null otherwise
+     */
+    public record Call(@NotNull String source, @NotNull String target, long nanos, boolean blockedConfiguration,
+        String failure) {}
+
+    /**
+     * A network operation.
+     *
+     * @param <T> The result type
+     * @param <E> The checked exception type
+     */
+    @FunctionalInterface
+    public interface NetworkAction<T, E extends Exception> {
+
+        /**
+         * Performs the operation
+         *
+         * @return The result
+         * @throws E Any failure
+         */
+        T run() throws E;
+    }
+
+    /**
+     * Starts recording calls into the given service, unless another one is already recording.
+     *
+     * @param service The service of the running build
+     */
+    static synchronized void activate(final @NotNull NetworkAuditService service) {
+        if (active == null) {
+            active = service;
+        }
+    }
+
+    /**
+     * Stops recording calls into the given service.
+     *
+     * @param service The service being closed
+     */
+    static synchronized void deactivate(final @NotNull NetworkAuditService service) {
+        if (active == service) {
+            active = null;
+        }
+    }
+
+    /**
+     * Runs and records a network call.
+     *
+     * @param source The GTNHGradle component making the call, e.g. "UtilityModule.deobf"
+     * @param target The URL or dependency fetched
+     * @param action The call itself
+     * @param <T>    The result type
+     * @param <E>    The checked exception type
+     * @return The result of the action
+     * @throws E Rethrows anything thrown by the action
+     */
+    public static <T, E extends Exception> T time(final @NotNull String source, final @NotNull String target,
+        final @NotNull NetworkAction<T, E> action) throws E {
+        final NetworkAuditService service = active;
+        if (service == null) {
+            return action.run();
+        }
+        final boolean blocking = service.isConfiguring();
+        final long start = System.nanoTime();
+        String failure = null;
+        try {
+            return action.run();
+        } catch (Exception | Error e) {
+            failure = e.getClass()
+                .getName();
+            throw e;
+        } finally {
+            service.record(new Call(source, target, System.nanoTime() - start, blocking, failure));
+        }
+    }
+}
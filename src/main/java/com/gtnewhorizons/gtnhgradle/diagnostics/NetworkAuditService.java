@@ -0,0 +1,147 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.api.services.BuildServiceRegistry;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Build-wide service holding the network calls recorded by {@link NetworkAudit}, and printing them when the build
+ * finishes. It is only registered when {@code gtnh.auditNetwork} is set, and is subscribed to task completion events
+ * only so that Gradle keeps it alive until the end of the build.
+ */
+public abstract class NetworkAuditService
+    implements BuildService<BuildServiceParameters.None>, OperationCompletionListener, AutoCloseable {
+
+    /** Name of the shared service registration */
+    public static final String SERVICE_NAME = "gtnhNetworkAudit";
+
+    /** Upper bound of recorded calls */
+    private static final int MAX_CALLS = 10_000;
+
+    private static final Logger LOGGER = Logging.getLogger(NetworkAuditService.class);
+
+    private final Queue<NetworkAudit.Call> calls = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger callCount = new AtomicInteger();
+    private volatile boolean configuring = false;
+
+    /** For dependency injection */
+    public NetworkAuditService() {
+        // Also covers builds reusing the configuration cache, where register() doesn't run
+        NetworkAudit.activate(this);
+    }
+
+    /**
+     * Registers the shared service and tracks the configuration phase for it.
+     *
+     * @param project The project being configured
+     * @param gtnh    The project's GTNH extension
+     */
+    public static void register(final @NotNull Project project, final @NotNull GTNHGradlePlugin.GTNHExtension gtnh) {
+        final BuildServiceRegistry services = project.getGradle()
+            .getSharedServices();
+        final boolean firstRegistration = services.getRegistrations()
+            .findByName(SERVICE_NAME) == null;
+        final Provider<NetworkAuditService> service = services
+            .registerIfAbsent(SERVICE_NAME, NetworkAuditService.class, spec -> {});
+        if (firstRegistration) {
+            gtnh.getBuildEventsListenerRegistry()
+                .onTaskCompletion(service);
+            // Created now rather than at execution, so that calls made while configuring are recorded
+            final NetworkAuditService instance = service.get();
+            instance.setConfiguring(true);
+            project.getGradle()
+                .getTaskGraph()
+                .whenReady(g -> instance.setConfiguring(false));
+        }
+    }
+
+    /** @return Whether the build is still configuring, so that network calls block it */
+    boolean isConfiguring() {
+        return configuring;
+    }
+
+    /** @param configuring Whether the build is still configuring, false once the task graph is ready */
+    void setConfiguring(final boolean configuring) {
+        this.configuring = configuring;
+    }
+
+    /**
+     * Records a finished call, dropping it once {@value #MAX_CALLS} calls are recorded.
+     *
+     * @param call The call
+     */
+    void record(final @NotNull NetworkAudit.Call call) {
+        if (callCount.getAndIncrement() < MAX_CALLS) {
+            calls.add(call);
+        }
+    }
+
+    /** @return The calls recorded so far, in order */
+    public @NotNull List<NetworkAudit.Call> getCalls() {
+        return List.copyOf(calls);
+    }
+
+    @Override
+    public void onFinish(final FinishEvent event) {}
+
+    @Override
+    public void close() {
+        NetworkAudit.deactivate(this);
+        LOGGER.lifecycle(summary(getCalls()));
+    }
+
+    /**
+     * @param recorded The recorded calls
+     * @return A readable table of the calls, those that blocked configuration and the slowest first
+     */
+    public static @NotNull String summary(final @NotNull List<NetworkAudit.Call> recorded) {
+        if (recorded.isEmpty()) {
+            return "GTNH network audit: no network calls made by GTNHGradle in this build";
+        }
+        final List<NetworkAudit.Call> calls = new ArrayList<>(recorded);
+        calls.sort(
+            Comparator.comparing(NetworkAudit.Call::blockedConfiguration)
+                .thenComparingLong(NetworkAudit.Call::nanos)
+                .reversed());
+        final long blockingNanos = calls.stream()
+            .filter(NetworkAudit.Call::blockedConfiguration)
+            .mapToLong(NetworkAudit.Call::nanos)
+            .sum();
+        final StringBuilder sb = new StringBuilder();
+        sb.append(
+            String.format(
+                Locale.ROOT,
+                "GTNH network audit: %d calls, %s ms spent blocking configuration:%n",
+                calls.size(),
+                ReportWriter.millis(blockingNanos)));
+        sb.append(String.format(Locale.ROOT, "  %-28s %10s %-9s %s%n", "Source", "Time (ms)", "Phase", "Target"));
+        for (final NetworkAudit.Call call : calls) {
+            sb.append(
+                String.format(
+                    Locale.ROOT,
+                    "  %-28s %10s %-9s %s%s%n",
+                    call.source(),
+                    ReportWriter.millis(call.nanos()),
+                    call.blockedConfiguration() ? "configure" : "execute",
+                    call.target(),
+                    call.failure() == null ? "" : " (failed: " + call.failure() + ")"));
+        }
+        return sb.toString();
+    }
+}
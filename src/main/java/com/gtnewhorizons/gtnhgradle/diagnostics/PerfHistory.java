@@ -0,0 +1,280 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only store of per-build performance samples, kept as one tab-separated file per project under the Gradle
+ * user home so that it survives {@code clean} and is shared between checkouts of the same project.
+ * Concurrent builds, possibly in different daemons, serialize their updates through a lock file next to the store.
+ */
+public final class PerfHistory {
+
+    /** Directory of the store, relative to the Gradle user home */
+    public static final String STORE_DIR = "caches/gtnh-perf";
+
+    /** Step name used for the total configuration time of a project */
+    public static final String CONFIGURATION_STEP = "configuration";
+
+    /** Outcome recorded for configuration steps */
+    public static final String CONFIGURED = "CONFIGURED";
+
+    /** Number of most recent builds kept in each store file */
+    public static final int MAX_BUILDS = 200;
+
+    /** Number of builds the store may grow past {@link #MAX_BUILDS} before it is pruned, so it is rarely rewritten */
+    public static final int PRUNE_SLACK = 50;
+
+    private static final String HEADER = "build\ttimestamp\tgitHash\tgtnhVersion\tstep\toutcome\tmillis";
+
+    private PerfHistory() {}
+
+    /**
+     * A single measurement.
+     *
+     * @param buildId     Identifier shared by all samples of one build
+     * @param timestamp   Epoch milliseconds at which the build finished
+     * @param gitHash     Git commit the project was built from, or "unknown"
+     * @param gtnhVersion GTNHGradle version used for the build
+     * @param step        A task path, {@value #CONFIGURATION_STEP} or {@code configuration:ModuleName}
+     * @param outcome     The task outcome, or {@value #CONFIGURED} for configuration steps
+     * @param millis      The measured duration
+     */
+    public record Sample(@NotNull String buildId, long timestamp, @NotNull String gitHash, @NotNull String gtnhVersion,
+        @NotNull String step, @NotNull String outcome, long millis) {}
+
+    /**
+     * @param gradleUserHome The Gradle user home directory
+     * @param projectName    The project name
+     * @param projectDir     The project directory, disambiguating projects with the same name
+     * @return The store file for the given project
+     */
+    public static @NotNull Path storeFile(final @NotNull Path gradleUserHome, final @NotNull String projectName,
+        final @NotNull Path projectDir) {
+        final String safeName = projectName.replaceAll("[^a-zA-Z0-9._-]+", "_");
+        final String dirHash;
+        try {
+            dirHash = HexFormat.of()
+                .formatHex(
+                    MessageDigest.getInstance("SHA-256")
+                        .digest(
+                            projectDir.toAbsolutePath()
+                                .normalize()
+                                .toString()
+                                .getBytes(StandardCharsets.UTF_8)))
+                .substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        return gradleUserHome.resolve(STORE_DIR)
+            .resolve(safeName + "-" + dirHash + ".tsv");
+    }
+
+    /**
+     * Appends the samples of one build. Once more than {@link #MAX_BUILDS} + {@link #PRUNE_SLACK} builds are stored,
+     * the oldest builds are dropped down to {@link #MAX_BUILDS}.
+     *
+     * @param store   The store file
+     * @param samples The samples to append
+     */
+    public static synchronized void append(final @NotNull Path store, final @NotNull List<Sample> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        final Path lockFile = store.resolveSibling(store.getFileName() + ".lock");
+        try {
+            Files.createDirectories(store.getParent());
+            try (FileChannel lockChannel = FileChannel
+                .open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock _ = lockChannel.lock()) {
+                final List<Sample> existing = read(store);
+                final Set<String> builds = new LinkedHashSet<>();
+                for (final Sample s : existing) {
+                    builds.add(s.buildId());
+                }
+                if (builds.size() < MAX_BUILDS + PRUNE_SLACK) {
+                    final StringBuilder sb = new StringBuilder();
+                    if (existing.isEmpty()) {
+                        sb.append(HEADER)
+                            .append('\n');
+                    }
+                    samples.forEach(s -> appendLine(sb, s));
+                    Files.writeString(
+                        store,
+                        sb,
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+                } else {
+                    final Set<String> kept = new LinkedHashSet<>(
+                        new ArrayList<>(builds).subList(builds.size() - MAX_BUILDS + 1, builds.size()));
+                    final StringBuilder sb = new StringBuilder(HEADER).append('\n');
+                    existing.stream()
+                        .filter(s -> kept.contains(s.buildId()))
+                        .forEach(s -> appendLine(sb, s));
+                    samples.forEach(s -> appendLine(sb, s));
+                    // Readers without the lock, like gtnhPerfCompare, never see a partially written store
+                    final Path temp = Files.createTempFile(store.getParent(), store.getFileName() + ".", ".tmp");
+                    Files.writeString(temp, sb, StandardCharsets.UTF_8);
+                    Files.move(temp, store, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not update performance history " + store, e);
+        }
+    }
+
+    /**
+     * @param store The store file
+     * @return All samples in the store, oldest first; empty if the store doesn't exist
+     */
+    public static @NotNull List<Sample> read(final @NotNull Path store) {
+        if (!Files.isRegularFile(store)) {
+            return List.of();
+        }
+        final List<Sample> samples = new ArrayList<>();
+        try {
+            for (final String line : Files.readAllLines(store, StandardCharsets.UTF_8)) {
+                final String[] f = line.split("\t");
+                if (f.length != 7 || line.equals(HEADER)) {
+                    continue;
+                }
+                try {
+                    samples.add(new Sample(f[0], Long.parseLong(f[1]), f[2], f[3], f[4], f[5], Long.parseLong(f[6])));
+                } catch (NumberFormatException _) {
+                    // Skip damaged lines, e.g. from an interrupted write
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read performance history " + store, e);
+        }
+        return samples;
+    }
+
+    /**
+     * A step whose latest measurement is slower than its baseline.
+     *
+     * @param step           The step name
+     * @param baselineMillis Median of the baseline builds
+     * @param currentMillis  The latest measurement
+     * @param baselineBuilds Number of builds the baseline was computed from
+     */
+    public record Regression(@NotNull String step, long baselineMillis, long currentMillis, int baselineBuilds) {
+
+        /** @return The slowdown relative to the baseline, in percent */
+        public double percent() {
+            return baselineMillis == 0 ? Double.POSITIVE_INFINITY
+                : (currentMillis - baselineMillis) * 100.0 / baselineMillis;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return String.format(
+                Locale.ROOT,
+                "%s: %d ms vs. baseline median %d ms over %d builds (%+.0f%%)",
+                step,
+                currentMillis,
+                baselineMillis,
+                baselineBuilds,
+                percent());
+        }
+    }
+
+    /**
+     * Compares the most recent build in the samples against the median of the builds before it.
+     * Only executed (not up-to-date or cached) task runs are compared, since anything else measures the caches rather
+     * than the work.
+     *
+     * @param samples          All stored samples, oldest first
+     * @param window           Maximum number of earlier builds forming the baseline
+     * @param thresholdPercent Slowdown beyond which a step counts as regressed
+     * @param minimumMillis    Slowdowns smaller than this are ignored as noise
+     * @return The regressed steps of the most recent build
+     */
+    public static @NotNull List<Regression> findRegressions(final @NotNull List<Sample> samples, final int window,
+        final int thresholdPercent, final long minimumMillis) {
+        if (samples.isEmpty()) {
+            return List.of();
+        }
+        final String currentBuild = samples.getLast()
+            .buildId();
+        final Map<String, Long> current = new LinkedHashMap<>();
+        final Map<String, Map<String, Long>> history = new LinkedHashMap<>();
+        for (final Sample s : samples) {
+            if (!isComparable(s)) {
+                continue;
+            }
+            if (s.buildId()
+                .equals(currentBuild)) {
+                current.put(s.step(), s.millis());
+            } else {
+                history.computeIfAbsent(s.step(), k -> new LinkedHashMap<>())
+                    .put(s.buildId(), s.millis());
+            }
+        }
+        final List<Regression> regressions = new ArrayList<>();
+        current.forEach((step, millis) -> {
+            final Map<String, Long> perBuild = history.get(step);
+            if (perBuild == null || perBuild.isEmpty()) {
+                return;
+            }
+            final List<Long> values = new ArrayList<>(perBuild.values());
+            final List<Long> baseline = values.subList(Math.max(0, values.size() - window), values.size());
+            final long median = median(baseline);
+            if (millis - median >= minimumMillis && millis * 100 > median * (100L + thresholdPercent)) {
+                regressions.add(new Regression(step, median, millis, baseline.size()));
+            }
+        });
+        return regressions;
+    }
+
+    private static boolean isComparable(final @NotNull Sample s) {
+        return s.outcome()
+            .equals("EXECUTED")
+            || s.outcome()
+                .equals(CONFIGURED);
+    }
+
+    private static long median(final @NotNull List<Long> values) {
+        final List<Long> sorted = new ArrayList<>(values);
+        sorted.sort(Long::compare);
+        final int mid = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(mid) : (sorted.get(mid - 1) + sorted.get(mid)) / 2;
+    }
+
+    private static void appendLine(final @NotNull StringBuilder sb, final @NotNull Sample s) {
+        sb.append(s.buildId())
+            .append('\t')
+            .append(s.timestamp())
+            .append('\t')
+            .append(s.gitHash())
+            .append('\t')
+            .append(s.gtnhVersion())
+            .append('\t')
+            .append(s.step())
+            .append('\t')
+            .append(s.outcome())
+            .append('\t')
+            .append(s.millis())
+            .append('\n');
+    }
+}
@@ -0,0 +1,81 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Small helpers shared by the diagnostic reports, which are written as hand-rolled JSON/CSV to avoid pulling a
+ * serialization library onto the plugin classpath.
+ */
+public final class ReportWriter {
+
+    private ReportWriter() {}
+
+    /**
+     * @param value The string to encode
+     * @return The string as a quoted JSON string literal
+     */
+    public static @NotNull String jsonString(final @NotNull String value) {
+        final StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+
+    /**
+     * @param value The string to encode
+     * @return The string as a CSV field, quoted only when necessary
+     */
+    public static @NotNull String csvField(final @NotNull String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * @param nanos A duration in nanoseconds
+     * @return The duration in milliseconds, formatted with one decimal digit
+     */
+    public static @NotNull String millis(final long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Writes a report file, creating the parent directories as needed.
+     *
+     * @param target   The file to (over)write
+     * @param contents The UTF-8 contents
+     */
+    public static void write(final @NotNull Path target, final @NotNull String contents) {
+        try {
+            Files.createDirectories(target.getParent());
+            Files.writeString(target, contents, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write report " + target, e);
+        }
+    }
+}
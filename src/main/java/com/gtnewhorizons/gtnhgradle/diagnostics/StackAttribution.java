@@ -0,0 +1,98 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Attributes configuration-time work to the innermost plugin or build script stack frame that caused it, used by the
+ * configuration audits. Frames of Gradle, the JDK and the language runtimes are skipped. The work is only owned when
+ * that frame belongs to GTNHGradle or a build script, so that other plugins applied from GTNHGradle, such as RFG, stay
+ * foreign.
+ *
+ * @param module The GTNH module or script responsible, or the module applying at the time for other plugins
+ * @param frame  The stack frame that triggered the work, or "(other plugin)"
+ * @param owned  Whether the frame belongs to GTNHGradle or a build script, and so can be fixed by us
+ */
+record StackAttribution(@NotNull String module, @NotNull String frame, boolean owned) {
+
+    private static final String GTNH_PACKAGE = "com.gtnewhorizons.gtnhgradle.";
+    private static final String MODULES_PACKAGE = GTNH_PACKAGE + "modules.";
+    private static final String DIAGNOSTICS_PACKAGE = GTNH_PACKAGE + "diagnostics.";
+    /** Packages that only ever pass calls through, never the plugin code responsible for them */
+    private static final List<String> INFRASTRUCTURE_PACKAGES = List.of(
+        "java.",
+        "javax.",
+        "jdk.",
+        "sun.",
+        "com.sun.",
+        "kotlin.",
+        "groovy.",
+        "org.codehaus.groovy.",
+        "org.gradle.",
+        "com.google.common.",
+        DIAGNOSTICS_PACKAGE);
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    /**
+     * @param scope The module or traced callback currently running, from {@link ConfigurationProfiler#currentScope()}
+     * @return The attribution of the current call stack
+     */
+    static @NotNull StackAttribution ofCurrentStack(final @Nullable String scope) {
+        return STACK_WALKER.walk(frames -> of(frames.map(StackWalker.StackFrame::toStackTraceElement), scope));
+    }
+
+    /**
+     * @param frames The call stack, innermost frame first
+     * @param scope  The module or traced callback currently running
+     * @return The attribution of the call stack
+     */
+    static @NotNull StackAttribution of(final @NotNull Stream<StackTraceElement> frames, final @Nullable String scope) {
+        final Optional<StackTraceElement> culprit = frames.filter(f -> !isInfrastructureFrame(f))
+            .findFirst();
+        if (culprit.isEmpty() || !isOwnedFrame(culprit.get())) {
+            return new StackAttribution(scope == null ? "-" : scope, "(other plugin)", false);
+        }
+        final StackTraceElement frame = culprit.get();
+        return new StackAttribution(moduleOf(frame, scope), frame.toString(), true);
+    }
+
+    private static boolean isInfrastructureFrame(final @NotNull StackTraceElement frame) {
+        if (isScriptFrame(frame)) {
+            return false;
+        }
+        final String className = frame.getClassName();
+        for (final String prefix : INFRASTRUCTURE_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOwnedFrame(final @NotNull StackTraceElement frame) {
+        return frame.getClassName()
+            .startsWith(GTNH_PACKAGE) || isScriptFrame(frame);
+    }
+
+    private static boolean isScriptFrame(final @NotNull StackTraceElement frame) {
+        final String file = frame.getFileName();
+        return file != null && (file.endsWith(".gradle") || file.endsWith(".gradle.kts"));
+    }
+
+    private static @NotNull String moduleOf(final @NotNull StackTraceElement frame, final @Nullable String scope) {
+        if (isScriptFrame(frame)) {
+            return "script " + frame.getFileName();
+        }
+        final String className = frame.getClassName();
+        if (className.startsWith(MODULES_PACKAGE)) {
+            final String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            final int nested = simpleName.indexOf('$');
+            return nested < 0 ? simpleName : simpleName.substring(0, nested);
+        }
+        return scope == null ? className.substring(className.lastIndexOf('.') + 1) : scope;
+    }
+}
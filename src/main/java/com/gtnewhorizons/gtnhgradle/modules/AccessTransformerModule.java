@@ -4,20 +4,30 @@ import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
 import com.gtnewhorizons.gtnhgradle.GTNHModule;
 import com.gtnewhorizons.gtnhgradle.PropertiesConfiguration;
 import com.gtnewhorizons.retrofuturagradle.mcp.MCPTasks;
-import org.gradle.api.GradleException;
+import com.gtnewhorizons.gtnhgradle.tasks.NormalizeAccessTransformersTask;
+import com.gtnewhorizons.gtnhgradle.tasks.ValidateAccessTransformersTask;
 import org.gradle.api.Project;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 
 /** Implements Access Transformers support */
 public class AccessTransformerModule implements GTNHModule {
 
+    /** Directories of a resource root searched for access transformers, in addition to the root itself */
+    public static final List<String> AT_SEARCH_DIRS = List.of("", "META-INF");
+
     @Override
     public boolean isEnabled(@NotNull PropertiesConfiguration configuration) {
         return configuration.moduleAccessTransformers;
@@ -37,44 +47,84 @@ public class AccessTransformerModule implements GTNHModule {
         final SourceSetContainer sourceSets = project.getExtensions()
             .getByType(JavaPluginExtension.class)
             .getSourceSets();
-        final ConfigurableFileCollection atList = mcpTasks.getDeobfuscationATs();
+        final ConfigurableFileCollection modAts = project.files();
 
+        final List<String> configuredAts = new ArrayList<>();
+        final Provider<List<File>> discoveredAts;
         if (!gtnh.configuration.accessTransformersFile.isEmpty()) {
             for (String atFile : gtnh.configuration.accessTransformersFile.split(" ")) {
                 final Path targetFile = metaInf.resolve(atFile.trim());
-                if (!Files.exists(metaInf.resolve(targetFile))) {
-                    throw new GradleException(
-                        "Could not resolve \"accessTransformersFile\"! Could not find " + targetFile);
-                }
-                atList.from(projectRoot.relativize(targetFile));
+                configuredAts.add(atFile.trim());
+                modAts.from(projectRoot.relativize(targetFile));
             }
+            discoveredAts = null;
         } else {
-            boolean atsFound = false;
-            for (File at : sourceSets.getByName("main")
-                .getResources()
-                .getFiles()) {
-                if (at.getName()
-                    .toLowerCase()
-                    .endsWith("_at.cfg")) {
-                    atsFound = true;
-                    atList.from(at);
+            // Found when the file collection is resolved, not while configuring
+            discoveredAts = project.provider(() -> {
+                final List<File> resourceDirs = new ArrayList<>();
+                for (final String sourceSet : new String[] { "main", "api" }) {
+                    resourceDirs.addAll(
+                        sourceSets.getByName(sourceSet)
+                            .getResources()
+                            .getSrcDirs());
                 }
-            }
-            for (File at : sourceSets.getByName("api")
-                .getResources()
-                .getFiles()) {
-                if (at.getName()
-                    .toLowerCase()
-                    .endsWith("_at.cfg")) {
-                    atsFound = true;
-                    atList.from(at);
+                return findAccessTransformers(resourceDirs);
+            });
+            modAts.from(discoveredAts);
+        }
+
+        final TaskProvider<ValidateAccessTransformersTask> validateTask = project.getTasks()
+            .register("validateAccessTransformers", ValidateAccessTransformersTask.class, t -> {
+                t.getMetaInfDirectory()
+                    .set(metaInf.toFile());
+                t.getConfiguredFiles()
+                    .set(configuredAts);
+                if (discoveredAts != null) {
+                    t.getDiscoveredFiles()
+                        .from(discoveredAts);
+                }
+            });
+
+        final TaskProvider<NormalizeAccessTransformersTask> normalizeTask = project.getTasks()
+            .register("normalizeAccessTransformers", NormalizeAccessTransformersTask.class, t -> {
+                t.dependsOn(validateTask);
+                t.getAccessTransformers()
+                    .from(modAts);
+                t.getOutputFile()
+                    .set(
+                        project.getLayout()
+                            .getBuildDirectory()
+                            .file("gtnh/accessTransformers/normalized_at.cfg"));
+            });
+        // Minecraft is deobfuscated with the normalized file, so comment and ordering changes don't invalidate it. The
+        // jar keeps shipping the original files.
+        mcpTasks.getDeobfuscationATs()
+            .from(
+                normalizeTask.flatMap(NormalizeAccessTransformersTask::getOutputFile)
+                    .map(normalized -> modAts.isEmpty() ? List.of() : List.of(normalized)));
+    }
+
+    /**
+     * Finds the {@code *_at.cfg} files at the root and in the {@link #AT_SEARCH_DIRS} of resource directories, without
+     * walking the assets.
+     *
+     * @param resourceDirs The resource directories
+     * @return The access transformers, in a stable order
+     */
+    public static @NotNull List<File> findAccessTransformers(@NotNull Collection<File> resourceDirs) {
+        final List<File> ats = new ArrayList<>();
+        for (final File resourceDir : resourceDirs) {
+            for (final String searchDir : AT_SEARCH_DIRS) {
+                final File[] files = new File(resourceDir, searchDir).listFiles(
+                    f -> f.getName()
+                        .toLowerCase(Locale.ROOT)
+                        .endsWith("_at.cfg") && f.isFile());
+                if (files != null) {
+                    ats.addAll(Arrays.asList(files));
                 }
-            }
-            if (atsFound) {
-                gtnh.logger.warn(
-                    "Found and added access transformers in the resources folder, please configure gradle.properties to explicitly mention them by name");
             }
         }
-
+        ats.sort(null);
+        return ats;
     }
 }
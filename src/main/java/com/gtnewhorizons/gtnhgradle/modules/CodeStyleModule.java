@@ -7,6 +7,7 @@ import com.gtnewhorizons.gtnhgradle.GTNHConstants;
 import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
 import com.gtnewhorizons.gtnhgradle.GTNHModule;
 import com.gtnewhorizons.gtnhgradle.PropertiesConfiguration;
+import com.gtnewhorizons.gtnhgradle.diagnostics.NetworkAudit;
 import org.gradle.api.Project;
 import org.gradle.api.plugins.quality.Checkstyle;
 import org.gradle.api.plugins.quality.CheckstyleExtension;
@@ -31,19 +32,24 @@ public class CodeStyleModule implements GTNHModule {
             // Version dynamically configured by GTNHSettingsConventionPlugin
             project.getPluginManager()
                 .apply("com.diffplug.spotless");
-            project.apply(oca -> { oca.from(Blowdryer.file("spotless.gradle")); });
+            project.apply(oca -> {
+                oca.from(NetworkAudit.time("Blowdryer", "spotless.gradle", () -> Blowdryer.file("spotless.gradle")));
+            });
         }
         if (!gtnh.configuration.disableCheckstyle) {
             project.getPlugins()
                 .apply(CheckstylePlugin.class);
             final TaskContainer tasks = project.getTasks();
-            for (final String disabledTask : ImmutableList.of(
-                "checkstylePatchedMc",
-                "checkstyleMcLauncher",
-                "checkstyleIdeVirtualMain",
-                "checkstyleInjectedTags")) {
-                tasks.named(disabledTask)
-                    .configure(t -> t.setEnabled(false));
+            // The RFG source sets don't exist in a lightweight configuration
+            if (gtnh.lightweightModules == null) {
+                for (final String disabledTask : ImmutableList.of(
+                    "checkstylePatchedMc",
+                    "checkstyleMcLauncher",
+                    "checkstyleIdeVirtualMain",
+                    "checkstyleInjectedTags")) {
+                    tasks.named(disabledTask)
+                        .configure(t -> t.setEnabled(false));
+                }
             }
             tasks.withType(Checkstyle.class)
                 .configureEach(t -> {
@@ -0,0 +1,135 @@
+package com.gtnewhorizons.gtnhgradle.modules;
+
+import com.gtnewhorizons.gtnhgradle.GTNHPrewarmService;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+import org.gradle.process.ExecOperations;
+import org.gradle.process.ExecResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks whether the working tree has uncommitted changes with the native git executable, for the {@code -dirty}
+ * version suffix of {@link GitVersionModule}. {@code git diff --quiet} compares tracked files using the stat data
+ * cached in the index and stops at the first change, and untracked directories are listed as a single entry, so the
+ * check stays fast on large asset trees. Paths such as the run directories can be excluded. Returns null when git can't
+ * be run, in which case the module falls back to the palantir plugin. The check started by {@link GTNHPrewarmService}
+ * is used when it covers the same project directory and excluded paths.
+ */
+public abstract class GitDirtyValueSource implements ValueSource<Boolean, GitDirtyValueSource.Parameters> {
+
+    /** Value source parameters */
+    public interface Parameters extends ValueSourceParameters {
+
+        /** @return The project directory, inside the git repository */
+        DirectoryProperty getProjectDirectory();
+
+        /** @return Paths relative to the project directory whose changes don't make the tree dirty */
+        ListProperty<String> getExcludedPaths();
+
+        /** @return The prewarm service started by the settings plugin, if any */
+        Property<GTNHPrewarmService> getPrewarm();
+    }
+
+    /** @return Gradle-provided */
+    @Inject
+    public abstract ExecOperations getExecOperations();
+
+    @Override
+    public @Nullable Boolean obtain() {
+        final File projectDir = getParameters().getProjectDirectory()
+            .getAsFile()
+            .get();
+        final List<String> excludedPaths = getParameters().getExcludedPaths()
+            .get();
+        final GTNHPrewarmService prewarm = getParameters().getPrewarm()
+            .getOrNull();
+        return GTNHPrewarmService.join(
+            prewarm == null ? null : prewarm.dirty(projectDir.toPath(), excludedPaths),
+            () -> isDirty(getExecOperations(), projectDir, excludedPaths));
+    }
+
+    /**
+     * @param execOperations Runs git
+     * @param projectDir     The project directory, inside the git repository
+     * @param excludedPaths  Paths relative to the project directory whose changes don't make the tree dirty
+     * @return Whether the working tree has uncommitted changes, or null if git can't be run
+     */
+    public static @Nullable Boolean isDirty(@NotNull ExecOperations execOperations, @NotNull File projectDir,
+        @NotNull List<String> excludedPaths) {
+        final List<String> pathspec = pathspec(excludedPaths);
+        try {
+            final List<String> diff = new ArrayList<>(List.of("git", "diff", "--quiet", "HEAD", "--"));
+            diff.addAll(pathspec);
+            final ExecResult tracked = execOperations.exec(spec -> {
+                spec.setWorkingDir(projectDir);
+                spec.setCommandLine(diff);
+                spec.setIgnoreExitValue(true);
+                spec.setStandardOutput(OutputStream.nullOutputStream());
+                spec.setErrorOutput(OutputStream.nullOutputStream());
+            });
+            if (tracked.getExitValue() == 1) {
+                return true;
+            } else if (tracked.getExitValue() != 0) {
+                // No commit yet, or not a repository
+                return null;
+            }
+
+            final List<String> lsFiles = new ArrayList<>(
+                List.of(
+                    "git",
+                    "ls-files",
+                    "--others",
+                    "--exclude-standard",
+                    "--directory",
+                    "--no-empty-directory",
+                    "--"));
+            lsFiles.addAll(pathspec);
+            final ByteArrayOutputStream untracked = new ByteArrayOutputStream();
+            final ExecResult others = execOperations.exec(spec -> {
+                spec.setWorkingDir(projectDir);
+                spec.setCommandLine(lsFiles);
+                spec.setIgnoreExitValue(true);
+                spec.setStandardOutput(untracked);
+                spec.setErrorOutput(OutputStream.nullOutputStream());
+            });
+            if (others.getExitValue() != 0) {
+                return null;
+            }
+            return !untracked.toString(StandardCharsets.UTF_8)
+                .isBlank();
+        } catch (Exception _) {
+            // Git is not installed
+            return null;
+        }
+    }
+
+    /**
+     * @param excludedPaths Paths relative to the project directory to ignore, absolute paths are skipped
+     * @return A git pathspec covering the whole repository except the excluded paths
+     */
+    public static @NotNull List<String> pathspec(@NotNull List<String> excludedPaths) {
+        final List<String> pathspec = new ArrayList<>();
+        pathspec.add(":/");
+        for (final String excluded : excludedPaths) {
+            final String path = excluded.trim()
+                .replace('\\', '/');
+            if (path.isEmpty() || new File(path).isAbsolute() || path.startsWith("..")) {
+                continue;
+            }
+            pathspec.add(":(exclude)" + path);
+        }
+        return pathspec;
+    }
+}
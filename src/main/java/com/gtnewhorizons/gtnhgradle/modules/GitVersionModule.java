@@ -3,16 +3,19 @@ package com.gtnewhorizons.gtnhgradle.modules;
 import com.gtnewhorizons.gtnhgradle.GTNHConstants;
 import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
 import com.gtnewhorizons.gtnhgradle.GTNHModule;
+import com.gtnewhorizons.gtnhgradle.GTNHPrewarmService;
 import com.gtnewhorizons.gtnhgradle.PropertiesConfiguration;
 import com.gtnewhorizons.retrofuturagradle.shadow.org.apache.commons.lang3.ObjectUtils;
 import com.gtnewhorizons.retrofuturagradle.shadow.org.apache.commons.lang3.StringUtils;
 import com.gtnewhorizons.retrofuturagradle.shadow.org.apache.commons.lang3.Strings;
 import com.palantir.gradle.gitversion.GitVersionCacheService;
 import com.palantir.gradle.gitversion.GitVersionPlugin;
-import com.palantir.gradle.gitversion.VersionDetails;
+import org.gradle.api.Action;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.gradle.api.provider.Provider;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.regex.Pattern;
@@ -31,7 +34,10 @@ public class GitVersionModule implements GTNHModule {
 
     @Override
     public void apply(GTNHGradlePlugin.@NotNull GTNHExtension gtnh, @NotNull Project project) {
-        String versionOverride = System.getenv("VERSION");
+        // Decides whether git is queried at all, so it has to be known during configuration
+        String versionOverride = project.getProviders()
+            .environmentVariable("VERSION")
+            .getOrNull();
 
         // Pulls version first from the VERSION env and then git tag
         String identifiedVersion;
@@ -42,32 +48,89 @@ public class GitVersionModule implements GTNHModule {
             if (versionOverride == null) {
                 project.getPlugins()
                     .apply(GitVersionPlugin.class);
-                final GitVersionCacheService gitService = GitVersionCacheService
-                    .getSharedGitVersionCacheService(project)
-                    .get();
+                // The upstream action reads the project when it runs, print the version captured at configuration
+                final Provider<String> projectVersion = project.getProviders()
+                    .provider(
+                        () -> project.getVersion()
+                            .toString());
                 project.getTasks()
                     .named("printVersion")
                     .configure(task -> {
-                        task.notCompatibleWithConfigurationCache("Upstream issue");
+                        task.getActions()
+                            .clear();
+                        task.doLast(new PrintVersion(projectVersion));
                     });
-                final VersionDetails gitDetails = gitService.getVersionDetails(project.getProjectDir(), null);
-                final String gitVersion = gitService.getGitVersion(project.getProjectDir(), null);
-                var isDirty = gitVersion.endsWith(".dirty"); // No public API for this, isCleanTag has a different
-                                                             // meaning
-                String branchName = ObjectUtils
-                    .firstNonNull(gitDetails.getBranchName(), System.getenv("GIT_BRANCH"), "git");
+                // Started by the settings plugin, the value sources do the lookups themselves without it
+                final Provider<GTNHPrewarmService> prewarm = GTNHPrewarmService.find(project.getGradle());
+                // Tracked by the configuration cache, the repository is only opened when the fingerprint changed
+                final String fingerprint = project.getProviders()
+                    .of(GitVersionValueSource.class, spec -> {
+                        spec.getParameters()
+                            .getProjectDirectory()
+                            .set(
+                                project.getLayout()
+                                    .getProjectDirectory());
+                        if (prewarm != null) {
+                            spec.getParameters()
+                                .getPrewarm()
+                                .set(prewarm);
+                        }
+                    })
+                    .getOrNull();
+                if (fingerprint == null) {
+                    throw new InvalidUserDataException("Not a git repository: " + project.getProjectDir());
+                }
+                // Also tracked, so that the configuration cache notices the tree becoming dirty or clean
+                final Boolean nativeDirty = project.getProviders()
+                    .of(GitDirtyValueSource.class, spec -> {
+                        spec.getParameters()
+                            .getProjectDirectory()
+                            .set(
+                                project.getLayout()
+                                    .getProjectDirectory());
+                        spec.getParameters()
+                            .getExcludedPaths()
+                            .addAll(gtnh.configuration.runClientDirectory, gtnh.configuration.runServerDirectory);
+                        if (prewarm != null) {
+                            spec.getParameters()
+                                .getPrewarm()
+                                .set(prewarm);
+                        }
+                    })
+                    .getOrNull();
+                final GitVersionValueSource.Details gitDetails = GitVersionValueSource.details(
+                    GitVersionCacheService.getSharedGitVersionCacheService(project)
+                        .get(),
+                    project.getProjectDir(),
+                    project.getLayout()
+                        .getBuildDirectory()
+                        .file(GitVersionValueSource.CACHE_FILE)
+                        .get()
+                        .getAsFile()
+                        .toPath(),
+                    fingerprint,
+                    nativeDirty);
+                project.getExtensions()
+                    .getExtraProperties()
+                    .set(GTNHConstants.GIT_HASH_PROPERTY, gitDetails.gitHash());
+                final boolean isDirty = gitDetails.dirty();
+                // Only consult the CI-provided branch when git can't tell, e.g. on a detached HEAD
+                String branchName = gitDetails.branchName() != null ? gitDetails.branchName()
+                    : project.getProviders()
+                        .environmentVariable("GIT_BRANCH")
+                        .getOrElse("git");
                 branchName = Strings.CS.removeStart(branchName, "origin/");
                 branchName = branchName.replaceAll("[^a-zA-Z0-9-]+", "-"); // sanitize branch names for semver
-                identifiedVersion = ObjectUtils.firstNonNull(gitDetails.getLastTag(), gitDetails.getGitHash(), "0.0.0");
-                if (gitDetails.getCommitDistance() > 0) {
+                identifiedVersion = ObjectUtils.firstNonNull(gitDetails.lastTag(), gitDetails.gitHash(), "0.0.0");
+                if (gitDetails.commitDistance() > 0) {
                     identifiedVersion += String.format(
                         "-%s.%s+%s%s",
                         branchName,
-                        gitDetails.getCommitDistance(),
-                        gitDetails.getGitHash(),
+                        gitDetails.commitDistance(),
+                        gitDetails.gitHash(),
                         isDirty ? "-dirty" : "");
                 } else if (isDirty) {
-                    identifiedVersion += String.format("-%s+%s-dirty", branchName, gitDetails.getGitHash());
+                    identifiedVersion += String.format("-%s+%s-dirty", branchName, gitDetails.gitHash());
                 } else {
                     checkVersion = true;
                 }
@@ -108,4 +171,19 @@ public class GitVersionModule implements GTNHModule {
             }
         }
     }
+
+    /** Configuration-cache compatible replacement of the palantir printVersion action */
+    private static class PrintVersion implements Action<Task> {
+
+        private final Provider<String> version;
+
+        PrintVersion(Provider<String> version) {
+            this.version = version;
+        }
+
+        @Override
+        public void execute(@NotNull Task task) {
+            System.out.println(version.get());
+        }
+    }
 }
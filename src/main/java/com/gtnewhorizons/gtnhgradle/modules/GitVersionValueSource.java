@@ -0,0 +1,272 @@
+package com.gtnewhorizons.gtnhgradle.modules;
+
+import com.gtnewhorizons.gtnhgradle.GTNHPrewarmService;
+import com.palantir.gradle.gitversion.GitVersionCacheService;
+import com.palantir.gradle.gitversion.VersionDetails;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Fingerprints what the git version of {@link GitVersionModule} depends on: HEAD, the refs and the index. The version
+ * details are cached under {@code build/} for that fingerprint, so that an unchanged checkout doesn't open the
+ * repository. As a {@link ValueSource}, the fingerprint is also what the configuration cache compares to decide whether
+ * the version can have changed. The cached dirty state is only used when {@link GitDirtyValueSource} can't run git,
+ * as working tree edits only change the fingerprint once they touch the index. The fingerprint computed by
+ * {@link GTNHPrewarmService} is used when it covers the same repository.
+ */
+public abstract class GitVersionValueSource implements ValueSource<String, GitVersionValueSource.Parameters> {
+
+    /** Location of the cached details, relative to the build directory */
+    public static final String CACHE_FILE = "gtnh/gitVersion.properties";
+
+    /** Value source parameters */
+    public interface Parameters extends ValueSourceParameters {
+
+        /** @return The project directory, inside the git repository */
+        DirectoryProperty getProjectDirectory();
+
+        /** @return The prewarm service started by the settings plugin, if any */
+        Property<GTNHPrewarmService> getPrewarm();
+    }
+
+    /**
+     * The parts of the palantir version details used to build the version.
+     *
+     * @param lastTag        The last tag reachable from HEAD, or null
+     * @param gitHash        The abbreviated commit hash
+     * @param commitDistance The number of commits since the last tag
+     * @param branchName     The checked out branch, or null on a detached HEAD
+     * @param dirty          If the working tree has uncommitted changes
+     */
+    public record Details(@Nullable String lastTag, @NotNull String gitHash, int commitDistance,
+        @Nullable String branchName, boolean dirty) implements Serializable {}
+
+    @Override
+    public @Nullable String obtain() {
+        final Path gitDir = findGitDir(
+            getParameters().getProjectDirectory()
+                .getAsFile()
+                .get()
+                .toPath());
+        if (gitDir == null) {
+            return null;
+        }
+        final GTNHPrewarmService prewarm = getParameters().getPrewarm()
+            .getOrNull();
+        return GTNHPrewarmService.join(prewarm == null ? null : prewarm.fingerprint(gitDir), () -> {
+            try {
+                return fingerprint(gitDir);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * @param gitService  The palantir service
+     * @param projectDir  The project directory
+     * @param cacheFile   The cache file
+     * @param fingerprint The current fingerprint
+     * @param dirty       The result of {@link GitDirtyValueSource}, or null to ask the palantir plugin
+     * @return The cached details, or the details computed by the service and written to the cache
+     * @throws IOException Filesystem errors
+     */
+    public static @NotNull Details details(@NotNull GitVersionCacheService gitService, @NotNull File projectDir,
+        @NotNull Path cacheFile, @NotNull String fingerprint, @Nullable Boolean dirty) throws IOException {
+        final Details cached = readCache(cacheFile, fingerprint);
+        if (cached != null) {
+            return dirty == null || cached.dirty() == dirty ? cached
+                : new Details(cached.lastTag(), cached.gitHash(), cached.commitDistance(), cached.branchName(), dirty);
+        }
+        final VersionDetails gitDetails = gitService.getVersionDetails(projectDir, null);
+        // No public API for this, isCleanTag has a different meaning
+        final boolean isDirty = dirty != null ? dirty
+            : gitService.getGitVersion(projectDir, null)
+                .endsWith(".dirty");
+        final Details details = new Details(
+            gitDetails.getLastTag(),
+            gitDetails.getGitHash(),
+            gitDetails.getCommitDistance(),
+            gitDetails.getBranchName(),
+            isDirty);
+        writeCache(cacheFile, fingerprint, details);
+        return details;
+    }
+
+    /**
+     * @param projectDir A directory inside a repository
+     * @return The git directory of the repository or worktree, or null if the directory isn't in one
+     */
+    public static @Nullable Path findGitDir(@NotNull Path projectDir) {
+        for (Path dir = projectDir.toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            final Path dotGit = dir.resolve(".git");
+            if (Files.isDirectory(dotGit)) {
+                return dotGit;
+            }
+            if (Files.isRegularFile(dotGit)) {
+                // Worktrees and submodules point to their git directory
+                try {
+                    final String content = Files.readString(dotGit, StandardCharsets.UTF_8)
+                        .trim();
+                    if (content.startsWith("gitdir:")) {
+                        return dir.resolve(
+                            content.substring("gitdir:".length())
+                                .trim())
+                            .normalize();
+                    }
+                } catch (IOException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hashes everything the version details depend on: HEAD, the ref it points to, the tags and the index.
+     *
+     * @param gitDir The git directory
+     * @return The fingerprint
+     * @throws IOException Filesystem errors
+     */
+    public static @NotNull String fingerprint(@NotNull Path gitDir) throws IOException {
+        // Worktrees share the refs of the main repository
+        final Path commonFile = gitDir.resolve("commondir");
+        final Path commonDir = Files.isRegularFile(commonFile) ? gitDir.resolve(
+            Files.readString(commonFile, StandardCharsets.UTF_8)
+                .trim())
+            .normalize() : gitDir;
+
+        final StringBuilder sb = new StringBuilder();
+        final String head = Files.readString(gitDir.resolve("HEAD"), StandardCharsets.UTF_8)
+            .trim();
+        sb.append("HEAD ")
+            .append(head)
+            .append('\n');
+        if (head.startsWith("ref: ")) {
+            final Path ref = commonDir.resolve(
+                head.substring("ref: ".length())
+                    .trim());
+            if (Files.isRegularFile(ref)) {
+                sb.append("ref ")
+                    .append(
+                        Files.readString(ref, StandardCharsets.UTF_8)
+                            .trim())
+                    .append('\n');
+            }
+        }
+        appendStat(sb, commonDir.resolve("packed-refs"));
+        final Path tags = commonDir.resolve("refs/tags");
+        if (Files.isDirectory(tags)) {
+            try (Stream<Path> files = Files.walk(tags)) {
+                for (final Path tag : files.filter(Files::isRegularFile)
+                    .sorted()
+                    .toList()) {
+                    appendStat(sb, tag);
+                }
+            }
+        }
+        appendStat(sb, gitDir.resolve("index"));
+
+        try {
+            return HexFormat.of()
+                .formatHex(
+                    MessageDigest.getInstance("SHA-256")
+                        .digest(
+                            sb.toString()
+                                .getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void appendStat(StringBuilder sb, Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        sb.append(file)
+            .append(' ')
+            .append(attributes.size())
+            .append(' ')
+            .append(
+                attributes.lastModifiedTime()
+                    .toMillis())
+            .append('\n');
+    }
+
+    /**
+     * @param cacheFile   The cache file
+     * @param fingerprint The current fingerprint
+     * @return The cached details, or null if there are none for this fingerprint
+     */
+    public static @Nullable Details readCache(@NotNull Path cacheFile, @NotNull String fingerprint) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        final Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        if (!fingerprint.equals(props.getProperty("fingerprint")) || props.getProperty("gitHash") == null) {
+            return null;
+        }
+        try {
+            return new Details(
+                props.getProperty("lastTag"),
+                props.getProperty("gitHash"),
+                Integer.parseInt(props.getProperty("commitDistance", "")),
+                props.getProperty("branchName"),
+                Boolean.parseBoolean(props.getProperty("dirty")));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param cacheFile   The cache file
+     * @param fingerprint The fingerprint the details were computed for
+     * @param details     The details
+     * @throws IOException Filesystem errors
+     */
+    public static void writeCache(@NotNull Path cacheFile, @NotNull String fingerprint, @NotNull Details details)
+        throws IOException {
+        final Properties props = new Properties();
+        props.setProperty("fingerprint", fingerprint);
+        props.setProperty("gitHash", details.gitHash());
+        props.setProperty("commitDistance", Integer.toString(details.commitDistance()));
+        props.setProperty("dirty", Boolean.toString(details.dirty()));
+        if (details.lastTag() != null) {
+            props.setProperty("lastTag", details.lastTag());
+        }
+        if (details.branchName() != null) {
+            props.setProperty("branchName", details.branchName());
+        }
+        Files.createDirectories(cacheFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(cacheFile, StandardCharsets.UTF_8)) {
+            props.store(writer, "GTNHGradle git version cache");
+        }
+    }
+}
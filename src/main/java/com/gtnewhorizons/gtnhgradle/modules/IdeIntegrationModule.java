@@ -158,7 +158,7 @@ public class IdeIntegrationModule implements GTNHModule {
             run.setMainClass("GradleStart");
             run.setModuleName(project.getName() + ".ideVirtualMain");
         });
-        project.afterEvaluate(_p -> {
+        project.afterEvaluate(gtnh.profiler.traced("IdeIntegrationModule.afterEvaluate(runClient)", _p -> {
             final RunMinecraftTask runClient = tasks.named("runClient", RunMinecraftTask.class)
                 .get();
             final var run = ijClientRun.get();
@@ -168,13 +168,13 @@ public class IdeIntegrationModule implements GTNHModule {
             run.setProgramParameters(quotedJoin(runClient.calculateArgs()));
             run.setJvmArgs(
                 quotedJoin(runClient.calculateJvmArgs()) + ' ' + quotedPropJoin(runClient.getSystemProperties()));
-        });
+        }));
 
         final var ijServerRun = runs.register("Run Server (IJ Native)", Application.class, run -> {
             run.setMainClass("GradleStartServer");
             run.setModuleName(project.getName() + ".ideVirtualMain");
         });
-        project.afterEvaluate(_p -> {
+        project.afterEvaluate(gtnh.profiler.traced("IdeIntegrationModule.afterEvaluate(runServer)", _p -> {
             final RunMinecraftTask runServer = tasks.named("runServer", RunMinecraftTask.class)
                 .get();
             final var run = ijServerRun.get();
@@ -184,7 +184,7 @@ public class IdeIntegrationModule implements GTNHModule {
             run.setProgramParameters(quotedJoin(runServer.calculateArgs()));
             run.setJvmArgs(
                 quotedJoin(runServer.calculateJvmArgs()) + ' ' + quotedPropJoin(runServer.getSystemProperties()));
-        });
+        }));
 
         ideaExt.withIDEADir(ideaDir -> {
             try {
@@ -211,17 +211,14 @@ public class JVMDowngraderModule implements GTNHModule {
         addJabelStub(project, deps);
 
         if (!stubsProvider.shouldShadeStubs() && !stubsProvider.isExternal()) {
-            project.getConfigurations()
-                .all(c -> {
-                    if (c.isCanBeDeclared()) {
-                        deps.getConstraints()
-                            .add(
-                                c.getName(),
-                                UpdateableConstants.MIN_GTNHLIB_FOR_JVMDG_STUBS,
-                                constraint -> constraint
-                                    .because("Required for JVM Downgrader stubs when not shading them"));
-                    }
-                });
+            final String because = "Required for JVM Downgrader stubs when not shading them";
+            gtnh.dependencyRules.constraint(UpdateableConstants.MIN_GTNHLIB_FOR_JVMDG_STUBS, because);
+            // Also declared on implementation so that it ends up in the published metadata
+            deps.getConstraints()
+                .add(
+                    JavaPlugin.IMPLEMENTATION_CONFIGURATION_NAME,
+                    UpdateableConstants.MIN_GTNHLIB_FOR_JVMDG_STUBS,
+                    constraint -> constraint.because(because));
         }
     }
 
@@ -1,6 +1,7 @@
 package com.gtnewhorizons.gtnhgradle.modules;
 
 import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar;
+import com.gtnewhorizons.gtnhgradle.DependencyRules;
 import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
 import com.gtnewhorizons.gtnhgradle.GTNHModule;
 import com.gtnewhorizons.gtnhgradle.PropertiesConfiguration;
@@ -9,7 +10,6 @@ import com.gtnewhorizons.gtnhgradle.tasks.GenerateMixinAssetsTask;
 import com.gtnewhorizons.retrofuturagradle.MinecraftExtension;
 import com.gtnewhorizons.retrofuturagradle.modutils.ModUtils;
 import org.gradle.api.Project;
-import org.gradle.api.artifacts.DependencySubstitutions;
 import org.gradle.api.artifacts.dsl.DependencyHandler;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.plugins.JavaPlugin;
@@ -22,6 +22,8 @@ import org.gradle.api.tasks.compile.JavaCompile;
 import org.gradle.jvm.tasks.Jar;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 /** Easy Unimixins support. */
 public class MixinModule implements GTNHModule {
 
@@ -129,32 +131,19 @@ public class MixinModule implements GTNHModule {
         }
 
         // Replace old mixin mods with unimixins
-        // https://docs.gradle.org/8.0.2/userguide/resolution_rules.html#sec:substitution_with_classifier
-        project.getConfigurations()
-            .all(c -> {
-                final DependencySubstitutions ds = c.getResolutionStrategy()
-                    .getDependencySubstitution();
-                ds.substitute(ds.module("com.gtnewhorizon:gtnhmixins"))
-                    .using(ds.module(mixinProviderSpecNoClassifer))
-                    .withClassifier("dev")
-                    .because("Unimixins replaces other mixin mods");
-                ds.substitute(ds.module("com.github.GTNewHorizons:Mixingasm"))
-                    .using(ds.module(mixinProviderSpecNoClassifer))
-                    .withClassifier("dev")
-                    .because("Unimixins replaces other mixin mods");
-                ds.substitute(ds.module("com.github.GTNewHorizons:SpongePoweredMixin"))
-                    .using(ds.module(mixinProviderSpecNoClassifer))
-                    .withClassifier("dev")
-                    .because("Unimixins replaces other mixin mods");
-                ds.substitute(ds.module("com.github.GTNewHorizons:SpongeMixins"))
-                    .using(ds.module(mixinProviderSpecNoClassifer))
-                    .withClassifier("dev")
-                    .because("Unimixins replaces other mixin mods");
-                ds.substitute(ds.module("io.github.legacymoddingmc:unimixins:0.1.5"))
-                    .using(ds.module(mixinProviderSpecNoClassifer))
-                    .withClassifier("dev")
-                    .because("Our previous unimixins upload was missing the dev classifier");
-            });
+        final DependencyRules rules = gtnh.dependencyRules;
+        for (final String oldMixins : List.of(
+            "com.gtnewhorizon:gtnhmixins",
+            "com.github.GTNewHorizons:Mixingasm",
+            "com.github.GTNewHorizons:SpongePoweredMixin",
+            "com.github.GTNewHorizons:SpongeMixins")) {
+            rules.substitute(oldMixins, mixinProviderSpecNoClassifer, "dev", "Unimixins replaces other mixin mods");
+        }
+        rules.substitute(
+            "io.github.legacymoddingmc:unimixins:0.1.5",
+            mixinProviderSpecNoClassifer,
+            "dev",
+            "Our previous unimixins upload was missing the dev classifier");
 
         final TaskContainer tasks = project.getTasks();
 
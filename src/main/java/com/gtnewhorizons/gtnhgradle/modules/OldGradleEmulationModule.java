@@ -52,7 +52,7 @@ public class OldGradleEmulationModule implements GTNHModule {
         cfg.getByName("testImplementation")
             .extendsFrom(oldTestCompile);
 
-        project.afterEvaluate(p -> {
+        project.afterEvaluate(gtnh.profiler.traced("OldGradleEmulationModule.afterEvaluate", p -> {
             final ConfigurationContainer configs = p.getConfigurations();
             final Configuration compile = configs.getByName("compile");
             final Configuration testCompile = configs.getByName("testCompile");
@@ -65,6 +65,6 @@ public class OldGradleEmulationModule implements GTNHModule {
                 gtnh.logger.warn(
                     "For more details, see https://github.com/GTNewHorizons/ExampleMod1.7.10/blob/master/dependencies.gradle");
             }
-        });
+        }));
     }
 }
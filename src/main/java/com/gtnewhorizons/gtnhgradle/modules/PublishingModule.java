@@ -6,7 +6,6 @@ import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
 import com.gtnewhorizons.gtnhgradle.GTNHModule;
 import com.gtnewhorizons.gtnhgradle.PropertiesConfiguration;
 import com.gtnewhorizons.retrofuturagradle.shadow.com.google.common.collect.ImmutableSet;
-import com.gtnewhorizons.retrofuturagradle.shadow.org.apache.commons.lang3.ObjectUtils;
 import com.modrinth.minotaur.Minotaur;
 import com.modrinth.minotaur.ModrinthExtension;
 import com.modrinth.minotaur.TaskModrinthUpload;
@@ -19,18 +18,19 @@ import masecla.modrinth4j.model.version.ProjectVersion;
 import net.darkhax.curseforgegradle.CurseForgeGradlePlugin;
 import net.darkhax.curseforgegradle.TaskPublishCurseForge;
 import org.gradle.api.Project;
+import org.gradle.api.file.RegularFile;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
 import org.gradle.api.publish.PublishingExtension;
 import org.gradle.api.publish.maven.MavenPublication;
 import org.gradle.api.publish.plugins.PublishingPlugin;
+import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.TaskProvider;
 import org.gradle.jvm.tasks.Jar;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -54,11 +54,14 @@ public class PublishingModule implements GTNHModule {
         final Provider<String> modVersion = project.provider(
             () -> Objects.requireNonNull(ext.get(GTNHConstants.MOD_VERSION_PROPERTY))
                 .toString());
+        final ProviderFactory providers = project.getProviders();
+        final TaskContainer tasks = project.getTasks();
 
         // Maven
         if (gtnh.configuration.usesMavenPublishing) {
-            final String mavenUser = System.getenv("MAVEN_USER");
-            final String mavenPass = System.getenv("MAVEN_PASSWORD");
+            // Gradle only takes plain strings as repository credentials, so these have to be read now
+            final String mavenUser = providers.environmentVariable("MAVEN_USER")
+                .getOrNull();
             publishing.getPublications()
                 .register("maven", MavenPublication.class, mvn -> {
                     mvn.from(
@@ -68,14 +71,17 @@ public class PublishingModule implements GTNHModule {
                         mvn.artifact(ext.get("publishableApiJar"));
                     }
                     mvn.setGroupId(
-                        ObjectUtils.firstNonNull(
-                            System.getenv("ARTIFACT_GROUP_ID"),
-                            project.getGroup()
-                                .toString()));
-                    mvn.setArtifactId(ObjectUtils.firstNonNull(System.getenv("ARTIFACT_ID"), project.getName()));
+                        providers.environmentVariable("ARTIFACT_GROUP_ID")
+                            .getOrElse(
+                                project.getGroup()
+                                    .toString()));
+                    mvn.setArtifactId(
+                        providers.environmentVariable("ARTIFACT_ID")
+                            .getOrElse(project.getName()));
                     project.afterEvaluate(
-                        _p -> mvn
-                            .setVersion(ObjectUtils.firstNonNull(System.getenv("RELEASE_VERSION"), modVersion.get())));
+                        _p -> mvn.setVersion(
+                            providers.environmentVariable("RELEASE_VERSION")
+                                .getOrElse(modVersion.get())));
                 });
             if (mavenUser != null) {
                 publishing.getRepositories()
@@ -84,41 +90,46 @@ public class PublishingModule implements GTNHModule {
                         mvn.setUrl(gtnh.configuration.mavenPublishUrl);
                         mvn.setAllowInsecureProtocol(gtnh.configuration.mavenPublishUrl.startsWith("http://"));
                         mvn.getCredentials()
-                            .setUsername(ObjectUtils.firstNonNull(mavenUser, "NONE"));
+                            .setUsername(mavenUser);
                         mvn.getCredentials()
-                            .setPassword(ObjectUtils.firstNonNull(mavenPass, "NONE"));
+                            .setPassword(
+                                providers.environmentVariable("MAVEN_PASSWORD")
+                                    .getOrElse("NONE"));
                     });
             }
         }
 
-        final File changelogFile = new File(ObjectUtils.firstNonNull(System.getenv("CHANGELOG_FILE"), "CHANGELOG.md"));
+        // The tokens decide which upload tasks are wired, while the changelog is only read by the upload tasks
+        final Provider<RegularFile> changelogFile = project.getLayout()
+            .getProjectDirectory()
+            .file(
+                providers.environmentVariable("CHANGELOG_FILE")
+                    .orElse("CHANGELOG.md"));
 
         // Modrinth
-        final String mrToken = System.getenv("MODRINTH_TOKEN");
-        if (!gtnh.configuration.modrinthProjectId.isEmpty() && mrToken != null) {
+        final Provider<String> mrToken = providers.environmentVariable("MODRINTH_TOKEN");
+        if (!gtnh.configuration.modrinthProjectId.isEmpty() && mrToken.isPresent()) {
             project.getPlugins()
                 .apply(Minotaur.class);
             final ModrinthExtension mr = project.getExtensions()
                 .getByType(ModrinthExtension.class);
             mr.getToken()
-                .set(
-                    project.getProviders()
-                        .environmentVariable("MODRINTH_TOKEN"));
+                .set(mrToken);
             mr.getProjectId()
                 .set(gtnh.configuration.modrinthProjectId);
             mr.getVersionNumber()
                 .set(modVersion);
             mr.getVersionType()
                 .set(modVersion.map(v -> v.endsWith("-pre") ? "beta" : "release"));
-            if (changelogFile.exists()) {
-                final String contents = Files.readString(changelogFile.toPath(), StandardCharsets.UTF_8);
-                mr.getChangelog()
-                    .set(contents);
-            }
+            mr.getChangelog()
+                .set(
+                    providers.fileContents(changelogFile)
+                        .getAsText()
+                        .orElse(""));
             mr.getUploadFile()
-                .set(project.provider(() -> project.property("publishableObfJar")));
+                .set(providers.provider(() -> ext.get("publishableObfJar")));
             mr.getAdditionalFiles()
-                .set(project.provider(() -> getSecondaryArtifacts(project, gtnh)));
+                .set(providers.provider(() -> getSecondaryArtifacts(ext, tasks, gtnh.configuration)));
             mr.getGameVersions()
                 .add(gtnh.configuration.minecraftVersion);
             mr.getLoaders()
@@ -155,7 +166,7 @@ public class PublishingModule implements GTNHModule {
                                 .projectVersion(BuildConfig.VERSION)
                                 .contact("GTNewHorizons/GTNHGradle")
                                 .build(),
-                            mrToken);
+                            mrToken.get());
                         final ProjectVersion existingVersion = api.versions()
                             .getVersionByNumber(props.modrinthProjectId, actualVersion)
                             .join();
@@ -168,7 +179,7 @@ public class PublishingModule implements GTNHModule {
         }
 
         // Curseforge
-        final String cfToken = System.getenv("CURSEFORGE_TOKEN");
+        final Provider<String> cfToken = providers.environmentVariable("CURSEFORGE_TOKEN");
         if (!gtnh.configuration.curseForgeProjectId.isEmpty()) {
             project.getPlugins()
                 .apply(CurseForgeGradlePlugin.class);
@@ -185,13 +196,19 @@ public class PublishingModule implements GTNHModule {
                         .get()
                         .getAsFile();
 
+                    // Resolved by the task when it uploads
                     task.apiToken = cfToken;
                     task.disableVersionDetection();
                     task.upload(gtnh.configuration.curseForgeProjectId, obfFile, artifact -> {
-                        if (changelogFile.exists()) {
-                            artifact.changelogType = "markdown";
-                            artifact.changelog = changelogFile;
-                        }
+                        // Only attached when the file exists at upload time
+                        final Provider<String> changelog = providers.fileContents(changelogFile)
+                            .getAsText();
+                        task.doFirst("Attach the changelog", _t -> {
+                            if (changelog.isPresent()) {
+                                artifact.changelogType = "markdown";
+                                artifact.changelog = changelog.get();
+                            }
+                        });
                         artifact.releaseType = modVersion.map(v -> v.endsWith("-pre") ? "beta" : "release");
                         artifact.addGameVersion(gtnh.configuration.minecraftVersion, "Forge");
                         artifact.addModLoader("Forge");
@@ -211,7 +228,7 @@ public class PublishingModule implements GTNHModule {
                             artifact.addRelation("unimixins", "requiredDependency");
                         }
 
-                        for (final Object secondary : getSecondaryArtifacts(project, gtnh)) {
+                        for (final Object secondary : getSecondaryArtifacts(ext, tasks, gtnh.configuration)) {
                             @SuppressWarnings("unchecked")
                             final File secondaryFile = ((TaskProvider<Jar>) secondary).get()
                                 .getArchiveFile()
@@ -221,7 +238,7 @@ public class PublishingModule implements GTNHModule {
                         }
                     });
                 });
-            if (cfToken != null) {
+            if (cfToken.isPresent()) {
                 project.getTasks()
                     .named(PublishingPlugin.PUBLISH_LIFECYCLE_TASK_NAME)
                     .configure(task -> task.dependsOn(publishCurseforge));
@@ -248,17 +265,14 @@ public class PublishingModule implements GTNHModule {
             .add(dep);
     }
 
-    private static List<Object> getSecondaryArtifacts(Project project, GTNHGradlePlugin.GTNHExtension gtnh) {
+    private static List<Object> getSecondaryArtifacts(ExtraPropertiesExtension ext, TaskContainer tasks,
+        PropertiesConfiguration configuration) {
         final List<Object> out = new ArrayList<>();
-        final ExtraPropertiesExtension ext = project.getExtensions()
-            .getExtraProperties();
         out.add(ext.get("publishableDevJar"));
-        if (!gtnh.configuration.noPublishedSources) {
-            out.add(
-                project.getTasks()
-                    .named("sourcesJar"));
+        if (!configuration.noPublishedSources) {
+            out.add(tasks.named("sourcesJar"));
         }
-        if (!gtnh.configuration.apiPackage.isEmpty()) {
+        if (!configuration.apiPackage.isEmpty()) {
             out.add(ext.get("publishableApiJar"));
         }
         return out;
@@ -4,9 +4,17 @@ import com.gtnewhorizons.gtnhgradle.GTNHConstants;
 import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
 import com.gtnewhorizons.gtnhgradle.GTNHModule;
 import com.gtnewhorizons.gtnhgradle.PropertiesConfiguration;
+import com.gtnewhorizons.gtnhgradle.tasks.CheckProjectStructureTask;
 import org.gradle.api.GradleException;
 import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.TaskProvider;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
 
 /** Checks the project structure for obvious mistakes */
 public class StructureCheckModule implements GTNHModule {
@@ -18,131 +26,177 @@ public class StructureCheckModule implements GTNHModule {
 
     @Override
     public void apply(GTNHGradlePlugin.@NotNull GTNHExtension gtnh, @NotNull Project project) {
-        final String modGroupPath = gtnh.configuration.modGroup.replace('.', '/');
-        final String apiPackagePath = gtnh.configuration.apiPackage.replace('.', '/');
+        // Only what other modules rely on is checked while configuring, the file system is left to the task
+        final GradleException failure = checkProperties(Inputs.of(gtnh.configuration));
+        if (failure != null) {
+            throw failure;
+        }
 
-        String targetPackageJava = GTNHConstants.JAVA_SOURCES_DIR + modGroupPath;
-        String targetPackageScala = GTNHConstants.SCALA_SOURCES_DIR + modGroupPath;
-        String targetPackageKotlin = GTNHConstants.KOTLIN_SOURCES_DIR + modGroupPath;
+        final PropertiesConfiguration config = gtnh.configuration;
+        final TaskProvider<CheckProjectStructureTask> checkTask = project.getTasks()
+            .register("checkProjectStructure", CheckProjectStructureTask.class, t -> {
+                t.getModGroup()
+                    .set(config.modGroup);
+                t.getApiPackage()
+                    .set(config.apiPackage);
+                t.getUsesMixins()
+                    .set(config.usesMixins);
+                t.getMixinsPackage()
+                    .set(config.mixinsPackage);
+                t.getMixinPlugin()
+                    .set(config.mixinPlugin);
+                t.getSeparateMixinSourceSet()
+                    .set(config.separateMixinSourceSet);
+                t.getCoreModClass()
+                    .set(config.coreModClass);
+                t.getProjectDirectory()
+                    .set(
+                        project.getLayout()
+                            .getProjectDirectory());
+                t.getReportFile()
+                    .set(
+                        project.getLayout()
+                            .getBuildDirectory()
+                            .file("gtnh/projectStructure.txt"));
+            });
+        project.getTasks()
+            .named(JavaPlugin.COMPILE_JAVA_TASK_NAME)
+            .configure(t -> t.dependsOn(checkTask));
+    }
 
-        if (!(project.file(targetPackageJava)
-            .exists()
-            || project.file(targetPackageScala)
-                .exists()
-            || project.file(targetPackageKotlin)
-                .exists())) {
-            throw new GradleException(
-                "Could not resolve \"modGroup\"! Could not find " + targetPackageJava
-                    + " or "
-                    + targetPackageScala
-                    + " or "
-                    + targetPackageKotlin);
+    /**
+     * The properties the structure check depends on.
+     *
+     * @param modGroup               See {@link PropertiesConfiguration#modGroup}
+     * @param apiPackage             See {@link PropertiesConfiguration#apiPackage}
+     * @param usesMixins             See {@link PropertiesConfiguration#usesMixins}
+     * @param mixinsPackage          See {@link PropertiesConfiguration#mixinsPackage}
+     * @param mixinPlugin            See {@link PropertiesConfiguration#mixinPlugin}
+     * @param separateMixinSourceSet See {@link PropertiesConfiguration#separateMixinSourceSet}
+     * @param coreModClass           See {@link PropertiesConfiguration#coreModClass}
+     */
+    public record Inputs(String modGroup, String apiPackage, boolean usesMixins, String mixinsPackage,
+        String mixinPlugin, String separateMixinSourceSet, String coreModClass) {
+
+        /**
+         * @param configuration The project configuration
+         * @return The structure check inputs of the configuration
+         */
+        public static @NotNull Inputs of(@NotNull PropertiesConfiguration configuration) {
+            return new Inputs(
+                configuration.modGroup,
+                configuration.apiPackage,
+                configuration.usesMixins,
+                configuration.mixinsPackage,
+                configuration.mixinPlugin,
+                configuration.separateMixinSourceSet,
+                configuration.coreModClass);
         }
+    }
 
-        if (!gtnh.configuration.apiPackage.isEmpty()) {
-            targetPackageJava = GTNHConstants.JAVA_SOURCES_DIR + modGroupPath + "/" + apiPackagePath;
-            targetPackageScala = GTNHConstants.SCALA_SOURCES_DIR + modGroupPath + "/" + apiPackagePath;
-            targetPackageKotlin = GTNHConstants.KOTLIN_SOURCES_DIR + modGroupPath + "/" + apiPackagePath;
-            if (!(project.file(targetPackageJava)
-                .exists()
-                || project.file(targetPackageScala)
-                    .exists()
-                || project.file(targetPackageKotlin)
-                    .exists())) {
-                throw new GradleException(
-                    "Could not resolve \"apiPackage\"! Could not find " + targetPackageJava
-                        + " or "
-                        + targetPackageScala
-                        + " or "
-                        + targetPackageKotlin);
-            }
+    /**
+     * A property naming a package or class, and the paths it can be found at.
+     *
+     * @param property   The property name
+     * @param candidates Paths relative to the project directory, at least one of which must exist
+     */
+    public record Requirement(@NotNull String property, @NotNull List<String> candidates) {}
+
+    /**
+     * Checks the properties that must be consistent for the other modules to configure the project, without touching
+     * the file system.
+     *
+     * @param inputs The configured packages and classes
+     * @return The failure to report, or null if the properties are consistent
+     */
+    public static @Nullable GradleException checkProperties(@NotNull Inputs inputs) {
+        if (inputs.usesMixins() && inputs.mixinsPackage()
+            .isEmpty()) {
+            return new GradleException("\"usesMixins\" requires \"mixinsPackage\" to be set!");
         }
+        return null;
+    }
 
-        if (gtnh.configuration.usesMixins) {
-            if (gtnh.configuration.mixinsPackage.isEmpty()) {
-                throw new GradleException("\"usesMixins\" requires \"mixinsPackage\" to be set!");
-            }
-            final String mixinPackagePath = gtnh.configuration.mixinsPackage.replaceAll("\\.", "/");
-            final String mixinPluginPath = gtnh.configuration.mixinPlugin.replaceAll("\\.", "/");
-            String mixinSourceSet = gtnh.configuration.separateMixinSourceSet.trim();
+    /**
+     * @param inputs The configured packages and classes, consistent according to {@link #checkProperties}
+     * @return The packages and classes that must exist, in the order they are checked
+     */
+    public static @NotNull List<Requirement> requirements(@NotNull Inputs inputs) {
+        final String modGroupPath = inputs.modGroup()
+            .replace('.', '/');
+        final List<Requirement> requirements = new ArrayList<>();
+        requirements.add(new Requirement("modGroup", sourcePaths("main", modGroupPath)));
+        if (!inputs.apiPackage()
+            .isEmpty()) {
+            final String apiPackagePath = inputs.apiPackage()
+                .replace('.', '/');
+            requirements.add(new Requirement("apiPackage", sourcePaths("main", modGroupPath + "/" + apiPackagePath)));
+        }
+        if (inputs.usesMixins()) {
+            final String mixinPackagePath = inputs.mixinsPackage()
+                .replace('.', '/');
+            String mixinSourceSet = inputs.separateMixinSourceSet()
+                .trim();
             if (mixinSourceSet.isEmpty()) {
                 mixinSourceSet = "main";
             }
-
-            targetPackageJava = "src/" + mixinSourceSet + "/java/" + modGroupPath + "/" + mixinPackagePath;
-            targetPackageScala = "src/" + mixinSourceSet + "/scala/" + modGroupPath + "/" + mixinPackagePath;
-            targetPackageKotlin = "src/" + mixinSourceSet + "/kotlin/" + modGroupPath + "/" + mixinPackagePath;
-            if (!(project.file(targetPackageJava)
-                .exists()
-                || project.file(targetPackageScala)
-                    .exists()
-                || project.file(targetPackageKotlin)
-                    .exists())) {
-                throw new GradleException(
-                    "Could not resolve \"mixinsPackage\"! Could not find " + targetPackageJava
-                        + " or "
-                        + targetPackageScala
-                        + " or "
-                        + targetPackageKotlin);
-            }
-
-            if (!gtnh.configuration.mixinPlugin.isEmpty()) {
-                String targetFileJava = GTNHConstants.JAVA_SOURCES_DIR + modGroupPath + "/" + mixinPluginPath + ".java";
-                String targetFileScala = GTNHConstants.SCALA_SOURCES_DIR + modGroupPath
-                    + "/"
-                    + mixinPluginPath
-                    + ".scala";
-                String targetFileScalaJava = GTNHConstants.SCALA_SOURCES_DIR + modGroupPath
-                    + "/"
-                    + mixinPluginPath
-                    + ".java";
-                String targetFileKotlin = GTNHConstants.KOTLIN_SOURCES_DIR + modGroupPath
-                    + "/"
-                    + mixinPluginPath
-                    + ".kt";
-                if (!(project.file(targetFileJava)
-                    .exists()
-                    || project.file(targetFileScala)
-                        .exists()
-                    || project.file(targetFileScalaJava)
-                        .exists()
-                    || project.file(targetFileKotlin)
-                        .exists())) {
-                    throw new GradleException(
-                        "Could not resolve \"mixinPlugin\"! Could not find " + targetFileJava
-                            + " or "
-                            + targetFileScala
-                            + " or "
-                            + targetFileScalaJava
-                            + " or "
-                            + targetFileKotlin);
-                }
+            requirements.add(
+                new Requirement("mixinsPackage", sourcePaths(mixinSourceSet, modGroupPath + "/" + mixinPackagePath)));
+            if (!inputs.mixinPlugin()
+                .isEmpty()) {
+                final String mixinPluginPath = inputs.mixinPlugin()
+                    .replace('.', '/');
+                requirements.add(new Requirement("mixinPlugin", classPaths(modGroupPath + "/" + mixinPluginPath)));
             }
         }
+        if (!inputs.coreModClass()
+            .isEmpty()) {
+            final String coreModPath = inputs.coreModClass()
+                .replace('.', '/');
+            requirements.add(new Requirement("coreModClass", classPaths(modGroupPath + "/" + coreModPath)));
+        }
+        return requirements;
+    }
 
-        if (!gtnh.configuration.coreModClass.isEmpty()) {
-            final String coreModPath = gtnh.configuration.coreModClass.replaceAll("\\.", "/");
-            String targetFileJava = GTNHConstants.JAVA_SOURCES_DIR + modGroupPath + "/" + coreModPath + ".java";
-            String targetFileScala = GTNHConstants.SCALA_SOURCES_DIR + modGroupPath + "/" + coreModPath + ".scala";
-            String targetFileScalaJava = GTNHConstants.SCALA_SOURCES_DIR + modGroupPath + "/" + coreModPath + ".java";
-            String targetFileKotlin = GTNHConstants.KOTLIN_SOURCES_DIR + modGroupPath + "/" + coreModPath + ".kt";
-            if (!(project.file(targetFileJava)
-                .exists()
-                || project.file(targetFileScala)
-                    .exists()
-                || project.file(targetFileScalaJava)
-                    .exists()
-                || project.file(targetFileKotlin)
-                    .exists())) {
-                throw new GradleException(
-                    "Could not resolve \"coreModClass\"! Could not find " + targetFileJava
-                        + " or "
-                        + targetFileScala
-                        + " or "
-                        + targetFileScalaJava
-                        + " or "
-                        + targetFileKotlin);
+    /** Package directories in the Java, Scala and Kotlin sources of a source set */
+    private static List<String> sourcePaths(String sourceSet, String path) {
+        return List.of(
+            "src/" + sourceSet + "/java/" + path,
+            "src/" + sourceSet + "/scala/" + path,
+            "src/" + sourceSet + "/kotlin/" + path);
+    }
+
+    /** Source files of a class in the main source set, Scala sources can also contain Java classes */
+    private static List<String> classPaths(String path) {
+        return List.of(
+            GTNHConstants.JAVA_SOURCES_DIR + path + ".java",
+            GTNHConstants.SCALA_SOURCES_DIR + path + ".scala",
+            GTNHConstants.SCALA_SOURCES_DIR + path + ".java",
+            GTNHConstants.KOTLIN_SOURCES_DIR + path + ".kt");
+    }
+
+    /**
+     * Checks that the configured packages and classes exist.
+     *
+     * @param inputs The configured packages and classes
+     * @param exists Tests whether a path relative to the project directory exists
+     * @return The failure to report, or null if the structure is valid
+     */
+    public static @Nullable GradleException check(@NotNull Inputs inputs, @NotNull Predicate<String> exists) {
+        final GradleException propertiesFailure = checkProperties(inputs);
+        if (propertiesFailure != null) {
+            return propertiesFailure;
+        }
+        for (final Requirement requirement : requirements(inputs)) {
+            if (requirement.candidates()
+                .stream()
+                .noneMatch(exists)) {
+                return new GradleException(
+                    "Could not resolve \"" + requirement.property()
+                        + "\"! Could not find "
+                        + String.join(" or ", requirement.candidates()));
             }
         }
+        return null;
     }
 }
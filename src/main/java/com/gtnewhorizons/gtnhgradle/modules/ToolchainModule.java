@@ -19,7 +19,6 @@ import com.gtnewhorizons.retrofuturagradle.util.ProviderToStringWrapper;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ConfigurationContainer;
-import org.gradle.api.artifacts.DependencySubstitutions;
 import org.gradle.api.artifacts.ExternalModuleDependency;
 import org.gradle.api.artifacts.ModuleDependency;
 import org.gradle.api.artifacts.ModuleVersionSelector;
@@ -337,50 +336,48 @@ public abstract class ToolchainModule implements GTNHModule {
         }
 
         // Custom reobfuscation auto-mappings
-        project.getConfigurations()
-            .configureEach(c -> {
-                if (gtnh.configuration.useIC2FromCurseforge) {
-                    final DependencySubstitutions ds = c.getResolutionStrategy()
-                        .getDependencySubstitution();
-                    ds.substitute(ds.module("net.industrial-craft:industrialcraft-2:2.2.828-experimental"))
-                        .using(ds.module(UpdateableConstants.NEWEST_IC2_SPEC))
-                        .withoutClassifier()
-                        .because("Use a much more reliable Maven repository for IC2");
-                } else {
-                    c.getDependencies()
-                        .configureEach(dep -> {
-                            if (dep instanceof ExternalModuleDependency mdep) {
-                                if ("net.industrial-craft".equals(mdep.getGroup())
-                                    && "industrialcraft-2".equals(mdep.getName())) {
-                                    // https://www.curseforge.com/minecraft/mc-mods/industrial-craft/files/2353971
-                                    project.getDependencies()
-                                        .add(
-                                            mcpTasks.getReobfJarConfiguration()
-                                                .getName(),
-                                            UpdateableConstants.NEWEST_IC2_SPEC);
-                                }
-                            }
-                        });
-                }
-                final ObfuscationAttribute obfuscationAttr = c.getAttributes()
-                    .getAttribute(ObfuscationAttribute.OBFUSCATION_ATTRIBUTE);
-                if (obfuscationAttr == null || !obfuscationAttr.getName()
-                    .equals(ObfuscationAttribute.SRG)) {
-                    return;
-                }
-                c.getResolutionStrategy()
-                    .eachDependency(details -> {
-                        final ModuleVersionSelector requested = details.getRequested();
-                        // Remap CoFH core cursemaven dev jar to the obfuscated version for runObfClient/Server
-                        if ("curse.maven".equals(requested.getGroup()) && requested.getName()
-                            .endsWith("-69162")
-                            && requested.getVersion()
-                                .equals("2388751")) {
-                            details.useVersion("2388750");
-                            details.because("Pick obfuscated jar");
-                        }
-                    });
-            });
+        if (gtnh.configuration.useIC2FromCurseforge) {
+            gtnh.dependencyRules.substitute(
+                "net.industrial-craft:industrialcraft-2:2.2.828-experimental",
+                UpdateableConstants.NEWEST_IC2_SPEC,
+                null,
+                "Use a much more reliable Maven repository for IC2");
+        } else {
+            // Looked up once when the reobf mappings are resolved, instead of watching every declared dependency
+            mcpTasks.getReobfJarConfiguration()
+                .withDependencies(reobfDeps -> {
+                    final boolean usesIC2 = cfg.stream()
+                        .flatMap(
+                            c -> c.getDependencies()
+                                .stream())
+                        .anyMatch(
+                            dep -> dep instanceof ExternalModuleDependency
+                                && "net.industrial-craft".equals(dep.getGroup())
+                                && "industrialcraft-2".equals(dep.getName()));
+                    if (usesIC2) {
+                        // https://www.curseforge.com/minecraft/mc-mods/industrial-craft/files/2353971
+                        reobfDeps.add(
+                            project.getDependencies()
+                                .create(UpdateableConstants.NEWEST_IC2_SPEC));
+                    }
+                });
+        }
+        gtnh.dependencyRules.eachDependency(c -> {
+            final ObfuscationAttribute obfuscationAttr = c.getAttributes()
+                .getAttribute(ObfuscationAttribute.OBFUSCATION_ATTRIBUTE);
+            return obfuscationAttr != null && obfuscationAttr.getName()
+                .equals(ObfuscationAttribute.SRG);
+        }, details -> {
+            final ModuleVersionSelector requested = details.getRequested();
+            // Remap CoFH core cursemaven dev jar to the obfuscated version for runObfClient/Server
+            if ("curse.maven".equals(requested.getGroup()) && requested.getName()
+                .endsWith("-69162")
+                && requested.getVersion()
+                    .equals("2388751")) {
+                details.useVersion("2388750");
+                details.because("Pick obfuscated jar");
+            }
+        });
 
         // mcmod.info processing
         {
@@ -397,7 +394,7 @@ public abstract class ToolchainModule implements GTNHModule {
 
         tasks.named("processResources", ProcessResources.class)
             .configure(t -> { t.exclude("spotless.gradle"); });
-        project.afterEvaluate(p -> {
+        project.afterEvaluate(gtnh.profiler.traced("ToolchainModule.afterEvaluate", p -> {
             p.getTasks()
                 .named("processResources", ProcessResources.class)
                 .configure(t -> {
@@ -406,7 +403,7 @@ public abstract class ToolchainModule implements GTNHModule {
                         .properties(expandedProperties);
                     t.filesMatching("mcmod.info", fcd -> { fcd.expand(expandedProperties); });
                 });
-        });
+        }));
         // Configure the output manifest
         final TaskProvider<Jar> devJar = tasks.named("jar", Jar.class);
         final TaskProvider<ReobfuscatedJar> obfJar = tasks.named("reobfJar", ReobfuscatedJar.class);
@@ -5,14 +5,17 @@ import com.gtnewhorizons.gtnhgradle.GTNHConstants;
 import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
 import com.gtnewhorizons.gtnhgradle.GTNHModule;
 import com.gtnewhorizons.gtnhgradle.PropertiesConfiguration;
+import com.gtnewhorizons.gtnhgradle.diagnostics.NetworkAudit;
 import com.gtnewhorizons.gtnhgradle.UpdateableConstants;
 import com.gtnewhorizons.gtnhgradle.tasks.UpdateBuildscriptTask;
 import com.gtnewhorizons.gtnhgradle.tasks.UpdateDependenciesTask;
+import org.gradle.api.Action;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ResolveException;
-import org.gradle.api.artifacts.ResolvedArtifact;
-import org.gradle.api.artifacts.ResolvedConfiguration;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.result.ResolvedArtifactResult;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.wrapper.Wrapper;
@@ -41,7 +44,7 @@ public class UpdaterModule implements GTNHModule {
     public void apply(GTNHGradlePlugin.@NotNull GTNHExtension gtnh, @NotNull Project project) throws Throwable {
 
         // Do nothing for nested projects for safety
-        if (project.getRootProject() != project) {
+        if (!Project.PATH_SEPARATOR.equals(project.getPath())) {
             return;
         }
 
@@ -57,17 +60,19 @@ public class UpdaterModule implements GTNHModule {
         latestBuildscriptConfig.setTransitive(false);
         latestBuildscriptConfig.getResolutionStrategy()
             .cacheDynamicVersionsFor(10, TimeUnit.SECONDS);
-
-        final Provider<ResolvedConfiguration> latestResolver = project.getProviders()
-            .provider(latestBuildscriptConfig::getResolvedConfiguration);
-        final Provider<ResolvedArtifact> latestPluginArtifact = latestResolver.map(
-            r -> r.getResolvedArtifacts()
-                .iterator()
-                .next());
+        gtnh.resolutionDetector.watch(latestBuildscriptConfig);
+
+        // Lazy artifact results can be stored in the configuration cache, unlike a ResolvedConfiguration
+        final Provider<ResolvedArtifactResult> latestPluginArtifact = latestBuildscriptConfig.getIncoming()
+            .getArtifacts()
+            .getResolvedArtifacts()
+            .map(
+                r -> r.iterator()
+                    .next());
+        final Provider<File> latestPluginJar = latestPluginArtifact.map(ResolvedArtifactResult::getFile);
         final Provider<String> latestPluginVersion = latestPluginArtifact.map(
-            a -> a.getModuleVersion()
-                .getId()
-                .getVersion());
+            a -> ((ModuleComponentIdentifier) a.getId()
+                .getComponentIdentifier()).getVersion());
 
         final boolean isOffline = project.getGradle()
             .getStartParameter()
@@ -75,12 +80,12 @@ public class UpdaterModule implements GTNHModule {
         final boolean disableCheck = Boolean.getBoolean("DISABLE_BUILDSCRIPT_UPDATE_CHECK");
 
         // Run update checker after the buildscript might want to mess with it.
-        project.afterEvaluate(_p -> {
+        project.afterEvaluate(gtnh.profiler.traced("UpdaterModule.afterEvaluate", _p -> {
             if (!isOffline && !disableCheck) {
                 // Check for updates automatically
                 try {
-                    final ResolvedConfiguration rc = latestResolver.get();
-                    final String latestUpdate = latestPluginVersion.get();
+                    final String latestUpdate = NetworkAudit
+                        .time("UpdaterModule", UpdateableConstants.NEWEST_GTNHGRADLE_SPEC, latestPluginVersion::get);
                     if (!latestUpdate.equals(BuildConfig.VERSION)) {
                         gtnh.logger.warn(
                             "Build script update from {} to {} available! Run ./gradlew updateBuildScript",
@@ -91,21 +96,11 @@ public class UpdaterModule implements GTNHModule {
                     gtnh.logger.warn("Could not check for buildscript updates: {}", e.getMessage());
                 }
             }
-        });
+        }));
 
         final TaskContainer tasks = project.getTasks();
         tasks.named("wrapper", Wrapper.class)
-            .configure(t -> {
-                t.notCompatibleWithConfigurationCache("Scanning a resolved plugin Configuration");
-                t.doFirst(inner -> {
-                    final Wrapper tInner = (Wrapper) inner;
-                    final String version = getGradleVersionFromPlugin(latestPluginArtifact.get());
-                    inner.getLogger()
-                        .lifecycle("[GTNH] Setting wrapper's Gradle version to {}", version);
-                    // Get latest Gradle version from the future jar
-                    tInner.setGradleVersion(version);
-                });
-            });
+            .configure(t -> t.doFirst(new SetWrapperVersion(latestPluginJar)));
 
         final File settingsGradle = ((File) Objects.requireNonNull(
             project.getExtensions()
@@ -129,7 +124,6 @@ public class UpdaterModule implements GTNHModule {
             });
 
         tasks.register("updateBuildScript", UpdateBuildscriptTask.class, t -> {
-            t.notCompatibleWithConfigurationCache("Scanning a resolved plugin Configuration");
             t.getSettingsGradle()
                 .set(
                     project.getLayout()
@@ -143,7 +137,7 @@ public class UpdaterModule implements GTNHModule {
             t.getNewestVersionJar()
                 .set(
                     project.getLayout()
-                        .file(latestPluginArtifact.map(ResolvedArtifact::getFile)));
+                        .file(latestPluginJar));
         });
 
         final File dependenciesGradle = new File(rootDir, "dependencies.gradle");
@@ -157,8 +151,26 @@ public class UpdaterModule implements GTNHModule {
                         .file(project.provider(() -> dependenciesGradle))));
     }
 
-    private static String getGradleVersionFromPlugin(final ResolvedArtifact artifact) {
-        final File jar = artifact.getFile();
+    /** Sets the wrapper's Gradle version to the one the latest GTNHGradle jar declares */
+    private static class SetWrapperVersion implements Action<Task> {
+
+        private final Provider<File> latestPluginJar;
+
+        SetWrapperVersion(Provider<File> latestPluginJar) {
+            this.latestPluginJar = latestPluginJar;
+        }
+
+        @Override
+        public void execute(@NotNull Task task) {
+            final String version = getGradleVersionFromPlugin(latestPluginJar.get());
+            task.getLogger()
+                .lifecycle("[GTNH] Setting wrapper's Gradle version to {}", version);
+            // Get latest Gradle version from the future jar
+            ((Wrapper) task).setGradleVersion(version);
+        }
+    }
+
+    private static String getGradleVersionFromPlugin(final File jar) {
         final URL jarUrl;
         try {
             jarUrl = jar.toURI()
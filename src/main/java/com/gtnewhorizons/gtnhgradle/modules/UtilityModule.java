@@ -3,6 +3,8 @@ package com.gtnewhorizons.gtnhgradle.modules;
 import com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin;
 import com.gtnewhorizons.gtnhgradle.GTNHModule;
 import com.gtnewhorizons.gtnhgradle.PropertiesConfiguration;
+import com.gtnewhorizons.gtnhgradle.diagnostics.NetworkAudit;
+import com.gtnewhorizons.gtnhgradle.tasks.DeobfParamsTask;
 import com.gtnewhorizons.retrofuturagradle.modutils.ModUtils;
 import com.gtnewhorizons.retrofuturagradle.shadow.org.apache.commons.io.FileUtils;
 import com.gtnewhorizons.retrofuturagradle.shadow.org.apache.commons.lang3.Strings;
@@ -21,10 +23,8 @@ import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -67,84 +67,22 @@ public class UtilityModule implements GTNHModule {
             t.doLast(inner -> { PropertiesConfiguration.printPropertyDocs(System.out); });
         });
 
-        tasks.register("deobfParams", t -> {
-            t.setGroup("GTNH Buildscript");
-            t.setDescription("Rename all obfuscated parameter names inherited from Minecraft classes");
-            t.notCompatibleWithConfigurationCache("Currently needs getProject in the body");
-            t.doLast(inner -> {
-                final PropertiesConfiguration props = gtnh.configuration;
-                final String mcpDir = project.getGradle()
-                    .getGradleUserHomeDir() + "/caches/minecraft/de/oceanlabs/mcp/mcp_"
-                    + props.channel
-                    + "/"
-                    + props.mappingsVersion;
-                final String mcpZIP = mcpDir + "/mcp_"
-                    + props.channel
-                    + "-"
-                    + props.mappingsVersion
-                    + "-"
-                    + props.minecraftVersion
-                    + ".zip";
-                final String paramsCSV = mcpDir + "/params.csv";
-
-                final DownloadExtension download = project.getExtensions()
-                    .getByType(DownloadExtension.class);
-                download.run(ds -> {
-                    try {
-                        ds.src(
-                            "https://maven.minecraftforge.net/de/oceanlabs/mcp/mcp_" + props.channel
-                                + "/"
-                                + props.mappingsVersion
-                                + "-"
-                                + props.minecraftVersion
-                                + "/mcp_"
-                                + props.channel
-                                + "-"
-                                + props.mappingsVersion
-                                + "-"
-                                + props.minecraftVersion
-                                + ".zip");
-                    } catch (MalformedURLException e) {
-                        throw new RuntimeException(e);
-                    }
-                    ds.dest(mcpZIP);
-                    ds.overwrite(false);
-                });
-
-                if (!project.file(paramsCSV)
-                    .exists()) {
-                    inner.getLogger()
-                        .lifecycle("Extracting MCP archive ...");
-                    project.copy(cs -> {
-                        cs.from(project.zipTree(mcpZIP));
-                        cs.into(mcpDir);
-                    });
-                }
-
-                inner.getLogger()
-                    .lifecycle("Parsing params.csv ...");
-                Map<String, String> params = new HashMap<>();
-                try {
-                    for (String line : Files.readAllLines(Paths.get(paramsCSV))) {
-                        String[] cells = line.split(",");
-                        if (cells.length > 2 && cells[0].matches("p_i?\\d+_\\d+_")) {
-                            params.put(cells[0], cells[1]);
-                        }
-                    }
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-
-                final int changed = replaceParams(inner.getLogger(), project.file("src/main/java"), params);
-                inner.getLogger()
-                    .lifecycle("Modified {} files!", changed);
-                inner.getLogger()
-                    .lifecycle("""
-                        Don't forget to verify that the code still works as before!
-                        It could be broken due to duplicate variables existing now
-                        or parameters taking priority over other variables.
-                        """);
-            });
+        tasks.register("deobfParams", DeobfParamsTask.class, t -> {
+            final PropertiesConfiguration props = gtnh.configuration;
+            t.getChannel()
+                .set(props.channel);
+            t.getMappingsVersion()
+                .set(props.mappingsVersion);
+            t.getMinecraftVersion()
+                .set(props.minecraftVersion);
+            t.getMcpDirectory()
+                .set(
+                    new File(
+                        project.getGradle()
+                            .getGradleUserHomeDir(),
+                        "caches/minecraft/de/oceanlabs/mcp/mcp_" + props.channel + "/" + props.mappingsVersion));
+            t.getSourceDirectory()
+                .set(project.file("src/main/java"));
         });
 
         final ExtraPropertiesExtension ext = project.getExtensions()
@@ -255,15 +193,18 @@ public class UtilityModule implements GTNHModule {
 
         final DownloadExtension download = project.getExtensions()
             .getByType(DownloadExtension.class);
-        download.run(ds -> {
-            try {
-                ds.src(sourceURL);
-            } catch (MalformedURLException e) {
-                throw new RuntimeException(e);
-            }
-            ds.dest(obfFile);
-            ds.quiet(true);
-            ds.overwrite(false);
+        NetworkAudit.time("UtilityModule.deobf", sourceURL, () -> {
+            download.run(ds -> {
+                try {
+                    ds.src(sourceURL);
+                } catch (MalformedURLException e) {
+                    throw new RuntimeException(e);
+                }
+                ds.dest(obfFile);
+                ds.quiet(true);
+                ds.overwrite(false);
+            });
+            return null;
         });
         final ModUtils modUtils = project.getExtensions()
             .getByType(ModUtils.class);
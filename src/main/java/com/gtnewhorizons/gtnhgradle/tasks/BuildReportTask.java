@@ -0,0 +1,89 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import com.gtnewhorizons.gtnhgradle.diagnostics.BuildMetricsService;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Summarizes the task metrics recorded by {@link BuildMetricsService} during the last build. */
+public abstract class BuildReportTask extends DefaultTask {
+
+    /** @return The tasks.csv file written by the metrics service */
+    @Internal
+    public abstract RegularFileProperty getMetricsFile();
+
+    /** For dependency injection */
+    @Inject
+    public BuildReportTask() {
+        setGroup("GTNH Buildscript");
+        setDescription("Summarizes duration, outcome and output size of the heavy GTNH tasks from the last build");
+    }
+
+    /**
+     * Prints the summary.
+     *
+     * @throws IOException Filesystem error
+     */
+    @TaskAction
+    public void printReport() throws IOException {
+        final File metricsFile = getMetricsFile().getAsFile()
+            .get();
+        if (!metricsFile.isFile()) {
+            getLogger().lifecycle("No task metrics recorded yet, run a build first (looked in {})", metricsFile);
+            return;
+        }
+        final List<BuildMetricsService.TaskMetrics> metrics = new ArrayList<>();
+        final List<String> lines = Files.readAllLines(metricsFile.toPath(), StandardCharsets.UTF_8);
+        for (final String line : lines) {
+            if (line.isBlank() || line.equals(BuildMetricsService.CSV_HEADER)) {
+                continue;
+            }
+            final String[] fields = line.split(",");
+            if (fields.length < 6) {
+                continue;
+            }
+            metrics.add(
+                new BuildMetricsService.TaskMetrics(
+                    fields[0],
+                    fields[1],
+                    Long.parseLong(fields[2]),
+                    Long.parseLong(fields[3]),
+                    Long.parseLong(fields[5])));
+        }
+        metrics.sort(
+            Comparator.comparingLong(BuildMetricsService.TaskMetrics::durationMillis)
+                .reversed());
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-40s %-12s %12s %14s%n", "Task", "Outcome", "Time (ms)", "Output (KiB)"));
+        long totalMillis = 0;
+        final Map<String, Integer> outcomes = new TreeMap<>();
+        for (final BuildMetricsService.TaskMetrics m : metrics) {
+            totalMillis += m.durationMillis();
+            outcomes.merge(m.outcome(), 1, Integer::sum);
+            sb.append(
+                String.format(
+                    Locale.ROOT,
+                    "%-40s %-12s %12d %14s%n",
+                    m.taskPath(),
+                    m.outcome(),
+                    m.durationMillis(),
+                    m.outputBytes() < 0 ? "-" : String.valueOf(m.outputBytes() / 1024)));
+        }
+        sb.append(String.format(Locale.ROOT, "Total: %d ms across %d tasks %s", totalMillis, metrics.size(), outcomes));
+        getLogger().lifecycle(sb.toString());
+    }
+}
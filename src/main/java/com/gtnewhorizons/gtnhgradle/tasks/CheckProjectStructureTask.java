@@ -0,0 +1,129 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import com.gtnewhorizons.gtnhgradle.modules.StructureCheckModule;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Checks that the packages and classes named in the properties exist, used by {@link StructureCheckModule}. The inputs
+ * are the properties and which of the candidate paths exist, so the task is up-to-date until one of them changes.
+ */
+@CacheableTask
+public abstract class CheckProjectStructureTask extends DefaultTask {
+
+    /** @return The corresponding configuration property */
+    @Input
+    public abstract Property<String> getModGroup();
+
+    /** @return The corresponding configuration property */
+    @Input
+    public abstract Property<String> getApiPackage();
+
+    /** @return The corresponding configuration property */
+    @Input
+    public abstract Property<Boolean> getUsesMixins();
+
+    /** @return The corresponding configuration property */
+    @Input
+    public abstract Property<String> getMixinsPackage();
+
+    /** @return The corresponding configuration property */
+    @Input
+    public abstract Property<String> getMixinPlugin();
+
+    /** @return The corresponding configuration property */
+    @Input
+    public abstract Property<String> getSeparateMixinSourceSet();
+
+    /** @return The corresponding configuration property */
+    @Input
+    public abstract Property<String> getCoreModClass();
+
+    /** @return The project directory the checked paths are relative to */
+    @Internal
+    public abstract DirectoryProperty getProjectDirectory();
+
+    /** @return A report of the checked packages and classes, for up-to-date checks and caching */
+    @OutputFile
+    public abstract RegularFileProperty getReportFile();
+
+    /** For dependency injection */
+    @Inject
+    public CheckProjectStructureTask() {
+        setGroup("GTNH Buildscript");
+        setDescription("Checks the project structure for obvious mistakes");
+    }
+
+    /** @return The properties checked by the task */
+    @Internal
+    public StructureCheckModule.Inputs getStructureInputs() {
+        return new StructureCheckModule.Inputs(
+            getModGroup().get(),
+            getApiPackage().get(),
+            getUsesMixins().get(),
+            getMixinsPackage().get(),
+            getMixinPlugin().get(),
+            getSeparateMixinSourceSet().get(),
+            getCoreModClass().get());
+    }
+
+    /**
+     * Listed instead of fingerprinting the source directories, so that editing sources doesn't rerun the check.
+     *
+     * @return The candidate paths of the checked packages and classes that exist, relative to the project directory
+     */
+    @Input
+    public Set<String> getExistingPaths() {
+        final StructureCheckModule.Inputs inputs = getStructureInputs();
+        final Set<String> existing = new TreeSet<>();
+        if (StructureCheckModule.checkProperties(inputs) != null) {
+            return existing;
+        }
+        final File projectDirectory = getProjectDirectory().getAsFile()
+            .get();
+        for (final StructureCheckModule.Requirement requirement : StructureCheckModule.requirements(inputs)) {
+            for (final String candidate : requirement.candidates()) {
+                if (new File(projectDirectory, candidate).exists()) {
+                    existing.add(candidate);
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Executes the check
+     *
+     * @throws IOException Filesystem errors
+     */
+    @TaskAction
+    public void check() throws IOException {
+        final Set<String> existing = getExistingPaths();
+        final GradleException failure = StructureCheckModule.check(getStructureInputs(), existing::contains);
+        if (failure != null) {
+            throw failure;
+        }
+        final Path report = getReportFile().getAsFile()
+            .get()
+            .toPath();
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, String.join("\n", existing) + "\n", StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import com.gtnewhorizons.gtnhgradle.diagnostics.NetworkAudit;
+import com.gtnewhorizons.gtnhgradle.modules.UtilityModule;
+import de.undercouch.gradle.tasks.download.DownloadAction;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ArchiveOperations;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.Property;
+import org.gradle.api.specs.Specs;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/** Renames all obfuscated parameter names inherited from Minecraft classes in the sources */
+public abstract class DeobfParamsTask extends DefaultTask {
+
+    /** @return The MCP mappings channel */
+    @Input
+    public abstract Property<String> getChannel();
+
+    /** @return The MCP mappings version */
+    @Input
+    public abstract Property<String> getMappingsVersion();
+
+    /** @return The Minecraft version */
+    @Input
+    public abstract Property<String> getMinecraftVersion();
+
+    /** @return Directory the MCP archive is downloaded and extracted to */
+    @Internal
+    public abstract DirectoryProperty getMcpDirectory();
+
+    /** @return The source directory to rewrite in place */
+    @Internal
+    public abstract DirectoryProperty getSourceDirectory();
+
+    /** @return Gradle-provided */
+    @Inject
+    public abstract FileSystemOperations getFileSystemOperations();
+
+    /** @return Gradle-provided */
+    @Inject
+    public abstract ArchiveOperations getArchiveOperations();
+
+    private final DownloadAction downloadAction;
+
+    /** For dependency injection */
+    @Inject
+    public DeobfParamsTask() {
+        setGroup("GTNH Buildscript");
+        setDescription("Rename all obfuscated parameter names inherited from Minecraft classes");
+        // Ensure the task always runs
+        getOutputs().upToDateWhen(Specs.satisfyNone());
+        downloadAction = new DownloadAction(getProject(), this);
+    }
+
+    /**
+     * Downloads the MCP mappings if needed and replaces the SRG parameter names.
+     *
+     * @throws IOException Filesystem error
+     */
+    @TaskAction
+    public void deobfParams() throws IOException, ExecutionException, InterruptedException {
+        final String channel = getChannel().get();
+        final String mappingsVersion = getMappingsVersion().get();
+        final String minecraftVersion = getMinecraftVersion().get();
+        final File mcpDir = getMcpDirectory().getAsFile()
+            .get();
+        final String mcpName = "mcp_" + channel + "-" + mappingsVersion + "-" + minecraftVersion + ".zip";
+        final File mcpZip = new File(mcpDir, mcpName);
+        final File paramsCsv = new File(mcpDir, "params.csv");
+
+        final String mcpUrl = "https://maven.minecraftforge.net/de/oceanlabs/mcp/mcp_" + channel
+            + "/"
+            + mappingsVersion
+            + "-"
+            + minecraftVersion
+            + "/"
+            + mcpName;
+
+        downloadAction.src(mcpUrl);
+        downloadAction.dest(mcpZip);
+        downloadAction.overwrite(false);
+        NetworkAudit.time(
+            getPath(),
+            mcpUrl,
+            () -> downloadAction.execute(true)
+                .get());
+
+        if (!paramsCsv.exists()) {
+            getLogger().lifecycle("Extracting MCP archive ...");
+            getFileSystemOperations().copy(cs -> {
+                cs.from(getArchiveOperations().zipTree(mcpZip));
+                cs.into(mcpDir);
+            });
+        }
+
+        getLogger().lifecycle("Parsing params.csv ...");
+        final Map<String, String> params = new HashMap<>();
+        for (String line : Files.readAllLines(paramsCsv.toPath())) {
+            String[] cells = line.split(",");
+            if (cells.length > 2 && cells[0].matches("p_i?\\d+_\\d+_")) {
+                params.put(cells[0], cells[1]);
+            }
+        }
+
+        final int changed = UtilityModule.replaceParams(
+            getLogger(),
+            getSourceDirectory().getAsFile()
+                .get(),
+            params);
+        getLogger().lifecycle("Modified {} files!", changed);
+        getLogger().lifecycle("""
+            Don't forget to verify that the code still works as before!
+            It could be broken due to duplicate variables existing now
+            or parameters taking priority over other variables.
+            """);
+    }
+}
@@ -0,0 +1,126 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import com.gtnewhorizons.gtnhgradle.diagnostics.CacheSnapshot;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Diffs two {@link CacheSnapshot}s to name the inputs of the GTNH-wired tasks that changed between two builds, and so
+ * caused a build cache miss. Defaults to the two most recent snapshots of the project.
+ */
+public abstract class ExplainCacheMissTask extends DefaultTask {
+
+    /** @return Directory holding the project's snapshots */
+    @Internal
+    public abstract DirectoryProperty getSnapshotDirectory();
+
+    /** @return The earlier snapshot, absolute or relative to the snapshot directory */
+    @Internal
+    @Option(option = "before", description = "The earlier snapshot file, defaults to the second most recent one")
+    public abstract Property<String> getBefore();
+
+    /** @return The later snapshot, absolute or relative to the snapshot directory */
+    @Internal
+    @Option(option = "after", description = "The later snapshot file, defaults to the most recent one")
+    public abstract Property<String> getAfter();
+
+    /** @return Only report tasks whose path contains this string */
+    @Internal
+    @Option(option = "task", description = "Only report tasks whose path contains this string")
+    public abstract Property<String> getTaskFilter();
+
+    /** For dependency injection */
+    @Inject
+    public ExplainCacheMissTask() {
+        setGroup("GTNH Buildscript");
+        setDescription("Names the task inputs that changed between two builds, run with gtnh.cacheSnapshots=true");
+        getTaskFilter().convention("");
+    }
+
+    /**
+     * Prints the differences.
+     *
+     * @throws IOException Filesystem error
+     */
+    @TaskAction
+    public void explain() throws IOException {
+        final Path dir = getSnapshotDirectory().getAsFile()
+            .get()
+            .toPath();
+        final List<Path> available;
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                available = files.filter(
+                    p -> p.getFileName()
+                        .toString()
+                        .endsWith(CacheSnapshot.EXTENSION))
+                    .sorted()
+                    .toList();
+            }
+        } else {
+            available = List.of();
+        }
+
+        final Path after = getAfter().isPresent() ? dir.resolve(getAfter().get())
+            : available.isEmpty() ? null : available.getLast();
+        final Path before = getBefore().isPresent() ? dir.resolve(getBefore().get())
+            : available.size() < 2 ? null : available.get(available.size() - 2);
+        if (before == null || after == null) {
+            throw new GradleException(
+                "Need two cache snapshots to compare, found " + available.size()
+                    + " in "
+                    + dir
+                    + ". Build with -Pgtnh.cacheSnapshots=true, or pass --before and --after.");
+        }
+        for (final Path snapshot : List.of(before, after)) {
+            if (!Files.isRegularFile(snapshot)) {
+                throw new GradleException("Cache snapshot " + snapshot + " does not exist");
+            }
+        }
+
+        final Map<String, CacheSnapshot.Entry> beforeEntries = CacheSnapshot.read(before);
+        final Map<String, CacheSnapshot.Entry> afterEntries = CacheSnapshot.read(after);
+        final String filter = getTaskFilter().get();
+        final List<CacheSnapshot.Change> changes = CacheSnapshot.diff(beforeEntries, afterEntries)
+            .stream()
+            .filter(
+                c -> c.task()
+                    .contains(filter))
+            .toList();
+
+        getLogger().lifecycle("Comparing {} with {}", before.getFileName(), after.getFileName());
+        if (changes.isEmpty()) {
+            getLogger().lifecycle(
+                "No input of the tasks executed in both builds changed. A miss can still come from a different "
+                    + "Gradle or plugin version, or from the task not having executed in one of the builds.");
+            return;
+        }
+        final StringBuilder sb = new StringBuilder();
+        String task = null;
+        for (final CacheSnapshot.Change change : changes) {
+            if (!change.task()
+                .equals(task)) {
+                task = change.task();
+                sb.append('\n')
+                    .append(task)
+                    .append(':');
+            }
+            sb.append("\n    ")
+                .append(change);
+        }
+        getLogger().lifecycle(sb.toString());
+    }
+}
@@ -0,0 +1,90 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Merges the access transformers of the mod into one file with comments, blank lines, duplicates and ordering removed,
+ * used by {@link com.gtnewhorizons.gtnhgradle.modules.AccessTransformerModule}. Minecraft is only deobfuscated and
+ * recompiled again when an actual access change is made.
+ * <p>
+ * The normalized file is only used to deobfuscate Minecraft in the development environment. The mod jar still ships
+ * the original access transformers, which FML applies at runtime, so both only agree as long as the normalization
+ * keeps every access change.
+ */
+@CacheableTask
+public abstract class NormalizeAccessTransformersTask extends DefaultTask {
+
+    /** @return The access transformers of the mod */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getAccessTransformers();
+
+    /** @return The normalized access transformer */
+    @OutputFile
+    public abstract RegularFileProperty getOutputFile();
+
+    /** For dependency injection */
+    @Inject
+    public NormalizeAccessTransformersTask() {
+        setGroup("GTNH Buildscript");
+        setDescription("Merges the access transformers into a normalized file for Minecraft deobfuscation");
+    }
+
+    /**
+     * Executes the action
+     *
+     * @throws IOException Filesystem errors
+     */
+    @TaskAction
+    public void normalize() throws IOException {
+        final Path output = getOutputFile().getAsFile()
+            .get()
+            .toPath();
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, normalize(getAccessTransformers().getFiles()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param accessTransformers The access transformer files
+     * @return The access transformer entries of all files, without comments, sorted and deduplicated
+     * @throws IOException Filesystem errors
+     */
+    public static @NotNull String normalize(@NotNull Collection<File> accessTransformers) throws IOException {
+        final SortedSet<String> entries = new TreeSet<>();
+        for (final File at : accessTransformers) {
+            for (final String line : Files.readAllLines(at.toPath(), StandardCharsets.UTF_8)) {
+                final int comment = line.indexOf('#');
+                final String entry = (comment < 0 ? line : line.substring(0, comment)).trim()
+                    .replaceAll("\\s+", " ");
+                if (!entry.isEmpty()) {
+                    entries.add(entry);
+                }
+            }
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (final String entry : entries) {
+            sb.append(entry)
+                .append('\n');
+        }
+        return sb.toString();
+    }
+}
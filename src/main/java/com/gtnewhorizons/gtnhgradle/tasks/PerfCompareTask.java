@@ -0,0 +1,92 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import com.gtnewhorizons.gtnhgradle.diagnostics.PerfHistory;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Compares the most recently recorded build in the project's {@link PerfHistory} against the median of the builds
+ * before it, and warns or fails when a step got slower than the configured threshold.
+ */
+public abstract class PerfCompareTask extends DefaultTask {
+
+    /** @return The performance history store of the project */
+    @Internal
+    public abstract RegularFileProperty getStoreFile();
+
+    /** @return Slowdown in percent beyond which a step counts as regressed */
+    @Internal
+    public abstract Property<Integer> getThresholdPercent();
+
+    /** @return Number of earlier builds forming the baseline */
+    @Internal
+    public abstract Property<Integer> getWindow();
+
+    /** @return Slowdowns below this many milliseconds are ignored as noise */
+    @Internal
+    public abstract Property<Long> getMinimumMillis();
+
+    /** @return Whether to fail the build on regressions instead of warning */
+    @Internal
+    public abstract Property<Boolean> getFailOnRegression();
+
+    /** For dependency injection */
+    @Inject
+    public PerfCompareTask() {
+        setGroup("GTNH Buildscript");
+        setDescription("Compares the last build's configuration and task durations against recent builds");
+        getThresholdPercent().convention(30);
+        getWindow().convention(10);
+        getMinimumMillis().convention(100L);
+        getFailOnRegression().convention(false);
+    }
+
+    /** Runs the comparison */
+    @TaskAction
+    public void compare() {
+        final Path store = getStoreFile().getAsFile()
+            .get()
+            .toPath();
+        final List<PerfHistory.Sample> samples = PerfHistory.read(store);
+        if (samples.isEmpty()) {
+            getLogger().lifecycle("No performance history recorded yet in {}", store);
+            return;
+        }
+        final List<PerfHistory.Regression> regressions = PerfHistory.findRegressions(
+            samples,
+            getWindow().get(),
+            getThresholdPercent().get(),
+            getMinimumMillis().get());
+        final PerfHistory.Sample latest = samples.getLast();
+        if (regressions.isEmpty()) {
+            getLogger().lifecycle(
+                "No step of the last build ({} on GTNHGradle {}) regressed by more than {}%",
+                latest.gitHash(),
+                latest.gtnhVersion(),
+                getThresholdPercent().get());
+            return;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Performance regressions in the last build (")
+            .append(latest.gitHash())
+            .append(" on GTNHGradle ")
+            .append(latest.gtnhVersion())
+            .append("):");
+        for (final PerfHistory.Regression regression : regressions) {
+            sb.append("\n  ")
+                .append(regression);
+        }
+        if (getFailOnRegression().get()) {
+            throw new GradleException(sb.toString());
+        }
+        getLogger().warn(sb.toString());
+    }
+}
@@ -15,6 +15,8 @@ import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.invocation.Gradle;
 import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.options.Option;
 
@@ -41,6 +43,10 @@ public abstract class RunHotswappableMinecraftTask extends RunMinecraftTask {
     @Option(option = "hotswap", description = "Enables HotSwapAgent for enhanced class reloading under a debugger")
     public abstract Property<Boolean> getEnableHotswap();
 
+    /** @return Gradle-provided */
+    @Inject
+    public abstract ProviderFactory getProviderFactory();
+
     /**
      * For dependency injection
      *
@@ -59,7 +65,10 @@ public abstract class RunHotswappableMinecraftTask extends RunMinecraftTask {
             "Runs the modded " + side.name()
                 .toLowerCase(Locale.ROOT) + " using modern Java, lwjgl3ify and Hodgepodge");
         // IntelliJ doesn't seem to allow pre-set commandline arguments, so we also support an env variable
-        getEnableHotswap().convention(Boolean.parseBoolean(System.getenv("HOTSWAP")));
+        getEnableHotswap().convention(
+            getProviderFactory().environmentVariable("HOTSWAP")
+                .map(Boolean::parseBoolean)
+                .orElse(false));
         getTargetJvmVersion().convention(25);
 
         this.getLwjglVersion()
@@ -83,10 +92,10 @@ public abstract class RunHotswappableMinecraftTask extends RunMinecraftTask {
 
         this.getExtraJvmArgs()
             .addAll((List<String>) Objects.requireNonNull(project.property("modernJvmArgs")));
+        // Captured now, the provider below must not reach back into the project at execution time
+        final List<String> hotswapJvmArgs = (List<String>) Objects.requireNonNull(project.property("hotswapJvmArgs"));
         this.getExtraJvmArgs()
-            .addAll(
-                getEnableHotswap().map(
-                    enable -> enable ? (List<String>) project.property("hotswapJvmArgs") : Collections.emptyList()));
+            .addAll(getEnableHotswap().map(enable -> enable ? hotswapJvmArgs : Collections.emptyList()));
         if (side == Distribution.CLIENT && SystemUtils.IS_OS_MAC) {
             this.getExtraJvmArgs()
                 .add("-XstartOnFirstThread");
@@ -155,20 +164,24 @@ public abstract class RunHotswappableMinecraftTask extends RunMinecraftTask {
         systemProperty("gradlestart.bouncerServer", "com.gtnewhorizons.retrofuturabootstrap.Main");
 
         if (gtnh.configuration.usesMixins) {
+            final Configuration mixinCfg = project.getConfigurations()
+                .detachedConfiguration(
+                    project.getDependencies()
+                        .create(UpdateableConstants.NEWEST_UNIMIXINS));
+            mixinCfg.setCanBeConsumed(false);
+            mixinCfg.setCanBeResolved(true);
+            mixinCfg.setTransitive(false);
+            gtnh.resolutionDetector.watch(mixinCfg);
+            final Provider<List<String>> mixinAgent = mixinCfg.getElements()
+                .map(
+                    files -> Collections.singletonList(
+                        "-javaagent:" + files.iterator()
+                            .next()
+                            .getAsFile()
+                            .getAbsolutePath()));
+            final Provider<List<String>> noArgs = getProviderFactory().provider(Collections::emptyList);
             this.getExtraJvmArgs()
-                .addAll(project.provider(() -> {
-                    final Configuration mixinCfg = project.getConfigurations()
-                        .detachedConfiguration(
-                            project.getDependencies()
-                                .create(UpdateableConstants.NEWEST_UNIMIXINS));
-                    mixinCfg.setCanBeConsumed(false);
-                    mixinCfg.setCanBeResolved(true);
-                    mixinCfg.setTransitive(false);
-                    return getEnableHotswap().get() ? Collections.singletonList(
-                        "-javaagent:" + mixinCfg.getSingleFile()
-                            .getAbsolutePath())
-                        : Collections.emptyList();
-                }));
+                .addAll(getEnableHotswap().flatMap(enable -> enable ? mixinAgent : noArgs));
         }
     }
 }
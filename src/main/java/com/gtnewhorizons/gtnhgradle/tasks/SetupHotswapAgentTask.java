@@ -1,6 +1,7 @@
 package com.gtnewhorizons.gtnhgradle.tasks;
 
 import com.gtnewhorizons.gtnhgradle.UpdateableConstants;
+import com.gtnewhorizons.gtnhgradle.diagnostics.NetworkAudit;
 import com.gtnewhorizons.retrofuturagradle.shadow.org.apache.commons.io.FileUtils;
 import de.undercouch.gradle.tasks.download.DownloadAction;
 import org.gradle.api.Action;
@@ -81,7 +82,10 @@ public abstract class SetupHotswapAgentTask extends DefaultTask {
         downloadAction.dest(target);
         downloadAction.overwrite(false);
         downloadAction.tempAndMove(true);
-        downloadAction.execute(true)
-            .get();
+        NetworkAudit.time(
+            getPath(),
+            url,
+            () -> downloadAction.execute(true)
+                .get());
     }
 }
@@ -1,5 +1,6 @@
 package com.gtnewhorizons.gtnhgradle.tasks;
 
+import com.gtnewhorizons.gtnhgradle.diagnostics.NetworkAudit;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.specs.Specs;
@@ -16,6 +17,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
@@ -146,15 +148,25 @@ public abstract class UpdateDependenciesTask extends DefaultTask {
             return null;
         }
 
-        Document document;
         try {
-            DocumentBuilder builder = DocumentBuilderFactory.newInstance()
-                .newDocumentBuilder();
-            document = builder.parse(connection.getInputStream());
+            return NetworkAudit.time(getPath(), urlString, () -> parseVersions(connection.getInputStream()));
         } catch (Exception e) {
             getLogger().error("Could not fetch version: {}", urlString, e);
             return null;
         }
+    }
+
+    /**
+     * Parses a maven-metadata.xml document
+     *
+     * @param metadata The document contents
+     * @return All listed versions, in the order of the document
+     * @throws Exception Parsing or reading error
+     */
+    static List<String> parseVersions(InputStream metadata) throws Exception {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder();
+        Document document = builder.parse(metadata);
         NodeList versionElements = document.getElementsByTagName("version");
         List<String> versions = new ArrayList<>();
         for (int i = 0; i < versionElements.getLength(); i++) {
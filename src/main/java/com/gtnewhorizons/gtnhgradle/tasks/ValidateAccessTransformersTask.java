@@ -0,0 +1,57 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.File;
+
+/**
+ * Checks the access transformers named in "accessTransformersFile" exist, and warns about access transformers found
+ * without being named, used by {@link com.gtnewhorizons.gtnhgradle.modules.AccessTransformerModule}.
+ */
+public abstract class ValidateAccessTransformersTask extends DefaultTask {
+
+    /** @return The file names from the "accessTransformersFile" property */
+    @Input
+    public abstract ListProperty<String> getConfiguredFiles();
+
+    /** @return The META-INF resource directory the configured files are in */
+    @Internal
+    public abstract DirectoryProperty getMetaInfDirectory();
+
+    /** @return The access transformers found in the resources when none are configured */
+    @Internal
+    public abstract ConfigurableFileCollection getDiscoveredFiles();
+
+    /** For dependency injection */
+    @Inject
+    public ValidateAccessTransformersTask() {
+        setGroup("verification");
+        setDescription("Validates the access transformer configuration");
+    }
+
+    /** Executes the validation */
+    @TaskAction
+    public void validate() {
+        final File metaInf = getMetaInfDirectory().getAsFile()
+            .get();
+        for (final String atFile : getConfiguredFiles().get()) {
+            final File targetFile = new File(metaInf, atFile);
+            if (!targetFile.exists()) {
+                throw new GradleException(
+                    "Could not resolve \"accessTransformersFile\"! Could not find " + targetFile.toPath());
+            }
+        }
+        if (!getDiscoveredFiles().isEmpty()) {
+            getLogger().warn(
+                "Found and added access transformers in the resources folder, please configure gradle.properties to explicitly mention them by name");
+        }
+    }
+}
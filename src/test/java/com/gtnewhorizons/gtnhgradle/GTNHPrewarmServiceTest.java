@@ -0,0 +1,34 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for how modules consume the futures of {@link GTNHPrewarmService} */
+class GTNHPrewarmServiceTest {
+
+    @Test
+    void join_usesThePrewarmedResult() {
+        assertEquals(
+            "prewarmed",
+            GTNHPrewarmService.join(CompletableFuture.completedFuture("prewarmed"), GTNHPrewarmServiceTest::serial));
+        assertNull(GTNHPrewarmService.join(CompletableFuture.completedFuture(null), GTNHPrewarmServiceTest::serial));
+    }
+
+    @Test
+    void join_fallsBackToTheSerialPath() {
+        assertEquals("serial", GTNHPrewarmService.join(null, () -> "serial"));
+        assertEquals(
+            "serial",
+            GTNHPrewarmService.join(CompletableFuture.failedFuture(new IllegalStateException()), () -> "serial"));
+        final CompletableFuture<String> cancelled = new CompletableFuture<>();
+        cancelled.cancel(true);
+        assertEquals("serial", GTNHPrewarmService.join(cancelled, () -> "serial"));
+    }
+
+    private static String serial() {
+        throw new AssertionError("The prewarmed result should have been used");
+    }
+}
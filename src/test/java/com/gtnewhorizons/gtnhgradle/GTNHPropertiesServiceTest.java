@@ -0,0 +1,61 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the lookup precedence of {@link GTNHPropertiesService} */
+class GTNHPropertiesServiceTest {
+
+    private static final Map<String, String> REQUIRED = Map
+        .of("modName", "MyMod", "modId", "mymodid", "modGroup", "com.myname.mymodid");
+
+    private static Map<String, String> gradleProperties(String... keyValues) {
+        final Map<String, String> props = new HashMap<>(REQUIRED);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            props.put(keyValues[i], keyValues[i + 1]);
+        }
+        return props;
+    }
+
+    @Test
+    void merge_ownExtraPropertiesOverrideGradleProperties() {
+        final Map<String, Object> merged = GTNHPropertiesService
+            .merge(gradleProperties("modId", "fromgradle"), Map.of("modId", "fromext"));
+        assertEquals("fromext", merged.get("modId"));
+    }
+
+    @Test
+    void merge_ignoresUnrelatedAndNullExtraProperties() {
+        final Map<String, Object> own = new HashMap<>();
+        own.put("modId", null);
+        own.put("unrelated", "value");
+        final Map<String, Object> merged = GTNHPropertiesService
+            .merge(gradleProperties("modId", "fromgradle"), own);
+        assertEquals("fromgradle", merged.get("modId"));
+        assertFalse(merged.containsKey("unrelated"));
+    }
+
+    @Test
+    void initFromProperties_exportsDefaultsOfMissingKeys() {
+        final Map<String, Object> exported = new HashMap<>();
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        config.initFromProperties(GTNHPropertiesService.merge(gradleProperties(), Map.of()), exported::put);
+
+        assertEquals("mymodid", config.modId);
+        assertFalse(config.usesMixins);
+        assertEquals(false, exported.get("usesMixins"));
+        assertFalse(exported.containsKey("modId"));
+    }
+
+    @Test
+    void initFromProperties_requiresModIdentity() {
+        final Map<String, Object> merged = GTNHPropertiesService.merge(Map.of(), Map.of());
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new PropertiesConfiguration().initFromProperties(merged, null));
+    }
+}
@@ -0,0 +1,66 @@
+package com.gtnewhorizons.gtnhgradle;
+
+import com.gtnewhorizons.gtnhgradle.modules.CodeStyleModule;
+import com.gtnewhorizons.gtnhgradle.modules.UpdaterModule;
+import com.gtnewhorizons.gtnhgradle.modules.UtilityModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link LightweightMode} */
+class LightweightModeTest {
+
+    @ParameterizedTest
+    @CsvSource({ "auto, AUTO", "AUTO, AUTO", "true, TRUE", "false, FALSE" })
+    void fromString_validValues(String input, LightweightMode expected) {
+        assertEquals(expected, LightweightMode.fromString(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "yes", "lightweight" })
+    void fromString_invalidValues(String input) {
+        IllegalArgumentException ex = assertThrows(
+            IllegalArgumentException.class,
+            () -> LightweightMode.fromString(input));
+        assertTrue(
+            ex.getMessage()
+                .contains("Invalid value for gtnh.lightweight"));
+    }
+
+    @Test
+    void auto_spotlessAndMaintenanceTasksAreLightweight() {
+        assertEquals(
+            Set.of(CodeStyleModule.class, UpdaterModule.class),
+            LightweightMode.AUTO.modulesFor(List.of("spotlessApply", ":updateDependencies")));
+        assertEquals(Set.of(UtilityModule.class), LightweightMode.AUTO.modulesFor(List.of("faq", "propertiesHelp")));
+    }
+
+    @Test
+    void auto_anyOtherTaskNeedsFullSetup() {
+        assertNull(LightweightMode.AUTO.modulesFor(List.of("spotlessApply", "build")));
+        assertNull(LightweightMode.AUTO.modulesFor(List.of("sA")));
+        assertNull(LightweightMode.AUTO.modulesFor(List.of("help", "--task", "faq")));
+    }
+
+    @Test
+    void auto_noTasksNeedsFullSetup() {
+        assertNull(LightweightMode.AUTO.modulesFor(List.of()));
+    }
+
+    @Test
+    void true_ignoresUnknownTasks() {
+        assertEquals(Set.of(CodeStyleModule.class), LightweightMode.TRUE.modulesFor(List.of("spotlessCheck", "build")));
+        assertEquals(Set.of(), LightweightMode.TRUE.modulesFor(List.of()));
+    }
+
+    @Test
+    void false_alwaysNeedsFullSetup() {
+        assertNull(LightweightMode.FALSE.modulesFor(List.of("spotlessApply")));
+    }
+}
@@ -0,0 +1,115 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the recording and aggregation logic of {@link BuildMetricsService} */
+class BuildMetricsServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static BuildMetricsService.TaskMetrics task(String path, String outcome, long start, long end) {
+        return new BuildMetricsService.TaskMetrics(path, outcome, start, end, -1);
+    }
+
+    @Test
+    void taskMetrics_projectPathAndDuration() {
+        assertEquals(":", task(":reobfJar", "EXECUTED", 10, 25).projectPath());
+        assertEquals(":sub:mod", task(":sub:mod:reobfJar", "EXECUTED", 10, 25).projectPath());
+        assertEquals(15, task(":reobfJar", "EXECUTED", 10, 25).durationMillis());
+    }
+
+    @Test
+    void serviceName_isUniquePerProject() {
+        assertEquals(BuildMetricsService.SERVICE_NAME, BuildMetricsService.serviceName(":"));
+        assertEquals(BuildMetricsService.SERVICE_NAME + ".sub.mod", BuildMetricsService.serviceName(":sub:mod"));
+        assertNotEquals(BuildMetricsService.serviceName(":a"), BuildMetricsService.serviceName(":b"));
+    }
+
+    @Test
+    void sizeOf_sumsFilesAndDirectories() throws IOException {
+        final Path jar = tempDir.resolve("mod.jar");
+        Files.write(jar, new byte[100]);
+        final Path classes = tempDir.resolve("classes/a/b");
+        Files.createDirectories(classes);
+        Files.write(classes.resolve("A.class"), new byte[30]);
+        Files.write(classes.resolve("B.class"), new byte[12]);
+        final String missing = tempDir.resolve("missing")
+            .toString();
+
+        assertEquals(
+            142,
+            BuildMetricsService.sizeOf(
+                String.join(
+                    File.pathSeparator,
+                    jar.toString(),
+                    tempDir.resolve("classes")
+                        .toString(),
+                    missing,
+                    "")));
+    }
+
+    @Test
+    void historySamples_aggregatesModulesAndTasks() {
+        final List<BuildTrace.Span> spans = List.of(
+            new BuildTrace.Span("ToolchainModule", "module", 0, 4_000, "main"),
+            new BuildTrace.Span("ToolchainModule.afterEvaluate", "callback", 5_000, 2_500, "main"),
+            new BuildTrace.Span("MixinModule", "module", 8_000, 1_000, "main"));
+        final List<PerfHistory.Sample> samples = BuildMetricsService.historySamples(
+            "build",
+            42,
+            "abc",
+            spans,
+            List.of(task(":reobfJar", "EXECUTED", 100, 350)));
+
+        assertEquals(
+            List.of(
+                "configuration:ToolchainModule=4",
+                "configuration:MixinModule=1",
+                "configuration=7",
+                ":reobfJar=250"),
+            samples.stream()
+                .map(s -> s.step() + "=" + s.millis())
+                .toList());
+        for (final PerfHistory.Sample sample : samples) {
+            assertEquals("build", sample.buildId());
+            assertEquals(42, sample.timestamp());
+            assertEquals("abc", sample.gitHash());
+        }
+        assertEquals(
+            "EXECUTED",
+            samples.get(3)
+                .outcome());
+    }
+
+    @Test
+    void historySamples_skipsConfigurationWithoutModules() {
+        final List<PerfHistory.Sample> samples = BuildMetricsService.historySamples(
+            "build",
+            42,
+            "abc",
+            List.of(new BuildTrace.Span("callback", "callback", 0, 2_000, null)),
+            List.of());
+        assertTrue(samples.isEmpty());
+    }
+
+    @Test
+    void csv_listsTasksInRecordingOrder() {
+        final String csv = BuildMetricsService.toCsv(
+            List.of(
+                new BuildMetricsService.TaskMetrics(":shadowJar", "EXECUTED", 0, 20, 2048),
+                task(":reobfJar", "UP-TO-DATE", 20, 21)));
+        assertEquals(
+            BuildMetricsService.CSV_HEADER + "\n:shadowJar,EXECUTED,0,20,20,2048\n:reobfJar,UP-TO-DATE,20,21,1,-1\n",
+            csv);
+    }
+}
@@ -0,0 +1,86 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link BuildTrace} */
+class BuildTraceTest {
+
+    @Test
+    void spans_areKeptApartPerBuild() {
+        final long start = BuildTrace.nowMicros();
+        BuildTrace.record(":", "MainModule", "module", start);
+        BuildTrace.record(":included", "IncludedModule", "module", start);
+
+        assertEquals(
+            List.of("MainModule"),
+            BuildTrace.drain(":")
+                .stream()
+                .map(BuildTrace.Span::name)
+                .toList());
+        assertEquals(
+            List.of("IncludedModule"),
+            BuildTrace.drain(":included")
+                .stream()
+                .map(BuildTrace.Span::name)
+                .toList());
+    }
+
+    @Test
+    void drain_clearsTheSpans() {
+        BuildTrace.record(":drained", "Module", "module", BuildTrace.nowMicros());
+        assertEquals(
+            1,
+            BuildTrace.drain(":drained")
+                .size());
+        assertTrue(
+            BuildTrace.drain(":drained")
+                .isEmpty());
+    }
+
+    @Test
+    void reset_forgetsEarlierConfigurations() {
+        BuildTrace.record(":reset", "Stale", "module", BuildTrace.nowMicros());
+        BuildTrace.reset(":reset");
+        BuildTrace.record(":reset", "Fresh", "callback", BuildTrace.nowMicros());
+
+        final List<BuildTrace.Span> spans = BuildTrace.drain(":reset");
+        assertEquals(1, spans.size());
+        assertEquals(
+            "Fresh",
+            spans.get(0)
+                .name());
+        assertEquals(
+            Thread.currentThread()
+                .getName(),
+            spans.get(0)
+                .threadName());
+    }
+
+    private static String taskEvent(String name, long ts, long dur, int lane) {
+        return "{\"name\": \"" + name
+            + "\", \"cat\": \"task\", \"ph\": \"X\", \"ts\": "
+            + ts
+            + ", \"dur\": "
+            + dur
+            + ", \"pid\": 2, \"tid\": "
+            + lane
+            + "}";
+    }
+
+    @Test
+    void chromeTrace_packsOverlappingTasksIntoLanes() {
+        final String trace = BuildTrace.toChromeTrace(
+            List.of(),
+            List.of(
+                new BuildTrace.Span(":a", "task", 0, 100, null),
+                new BuildTrace.Span(":b", "task", 50, 100, null),
+                new BuildTrace.Span(":c", "task", 120, 10, null)));
+        assertTrue(trace.contains(taskEvent(":a", 0, 100, 1)));
+        assertTrue(trace.contains(taskEvent(":b", 50, 100, 2)));
+        assertTrue(trace.contains(taskEvent(":c", 120, 10, 1)));
+    }
+}
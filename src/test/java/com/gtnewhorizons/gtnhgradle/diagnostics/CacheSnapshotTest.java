@@ -0,0 +1,176 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link CacheSnapshot} */
+class CacheSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Map<String, CacheSnapshot.Entry> snapshot(String name, CacheSnapshot.Entry... entries) throws IOException {
+        final Path file = tempDir.resolve(name + CacheSnapshot.EXTENSION);
+        Files.writeString(
+            file,
+            "# header\n" + List.of(entries)
+                .stream()
+                .map(CacheSnapshot.Entry::toLine)
+                .collect(Collectors.joining("\n")),
+            StandardCharsets.UTF_8);
+        return CacheSnapshot.read(file);
+    }
+
+    private static CacheSnapshot.Entry property(String task, String key, String value) {
+        return new CacheSnapshot.Entry(task, CacheSnapshot.KIND_PROPERTY, key, value);
+    }
+
+    private static CacheSnapshot.Entry file(String task, String key, String value) {
+        return new CacheSnapshot.Entry(task, CacheSnapshot.KIND_FILE, key, value);
+    }
+
+    @Test
+    void readAndWrite_roundTripEscapedValues() throws IOException {
+        final CacheSnapshot.Entry entry = property(":jar", "manifest", "a\tb\nc\\d");
+        final Map<String, CacheSnapshot.Entry> read = snapshot("a", entry);
+        assertEquals(List.of(entry), List.copyOf(read.values()));
+    }
+
+    @Test
+    void diff_identicalSnapshotsHaveNoChanges() throws IOException {
+        final Map<String, CacheSnapshot.Entry> before = snapshot("a", property(":jar", "version", "1.0"));
+        final Map<String, CacheSnapshot.Entry> after = snapshot("b", property(":jar", "version", "1.0"));
+        assertTrue(
+            CacheSnapshot.diff(before, after)
+                .isEmpty());
+    }
+
+    @Test
+    void diff_namesChangedVersion() throws IOException {
+        final Map<String, CacheSnapshot.Entry> before = snapshot("a", property(":jar", "archiveVersion", "1.0"));
+        final Map<String, CacheSnapshot.Entry> after = snapshot("b", property(":jar", "archiveVersion", "1.0-dirty"));
+        final List<CacheSnapshot.Change> changes = CacheSnapshot.diff(before, after);
+        assertEquals(1, changes.size());
+        final CacheSnapshot.Change change = changes.getFirst();
+        assertEquals("archiveVersion", change.key());
+        assertEquals("1.0", change.before());
+        assertEquals("1.0-dirty", change.after());
+        assertTrue(
+            change.hint()
+                .contains("GitVersionModule"));
+    }
+
+    @Test
+    void diff_hintsAbsolutePaths() throws IOException {
+        final Map<String, CacheSnapshot.Entry> before = snapshot("a", property(":reobfJar", "srg", "/ci/a/mcp.srg"));
+        final Map<String, CacheSnapshot.Entry> after = snapshot("b", property(":reobfJar", "srg", "/ci/b/mcp.srg"));
+        assertTrue(
+            CacheSnapshot.diff(before, after)
+                .getFirst()
+                .hint()
+                .contains("absolute path"));
+    }
+
+    @Test
+    void diff_hintsArchiveMetadataOnlyChanges() throws IOException {
+        final Map<String, CacheSnapshot.Entry> before = snapshot("a", file(":shadowJar", "x.jar", "aa normalized=cc"));
+        final Map<String, CacheSnapshot.Entry> after = snapshot("b", file(":shadowJar", "x.jar", "bb normalized=cc"));
+        assertTrue(
+            CacheSnapshot.diff(before, after)
+                .getFirst()
+                .hint()
+                .contains("archive metadata"));
+    }
+
+    @Test
+    void diff_skipsTasksNotExecutedInBothBuilds() throws IOException {
+        final Map<String, CacheSnapshot.Entry> before = snapshot(
+            "a",
+            property(":jar", "version", "1"),
+            property(":shadowJar", "version", "1"));
+        final Map<String, CacheSnapshot.Entry> after = snapshot(
+            "b",
+            property(":jar", "version", "1"),
+            property(":reobfJar", "version", "2"));
+        assertTrue(
+            CacheSnapshot.diff(before, after)
+                .isEmpty());
+    }
+
+    @Test
+    void diff_reportsAddedAndRemovedFiles() throws IOException {
+        final Map<String, CacheSnapshot.Entry> before = snapshot("a", file(":jar", "src/a.txt", "11"));
+        final Map<String, CacheSnapshot.Entry> after = snapshot("b", file(":jar", "src/b.txt", "22"));
+        final List<CacheSnapshot.Change> changes = CacheSnapshot.diff(before, after);
+        assertEquals(2, changes.size());
+        assertNull(
+            changes.get(0)
+                .after());
+        assertNull(
+            changes.get(1)
+                .before());
+    }
+
+    @Test
+    void parse_skipsCommentsAndDamagedLines() {
+        final CacheSnapshot.Entry entry = file(":jar", "src/a.txt", "11");
+        assertEquals(entry, CacheSnapshot.parse(entry.toLine()));
+        assertNull(CacheSnapshot.parse("# GTNH cache snapshot"));
+        assertNull(CacheSnapshot.parse(""));
+        assertNull(CacheSnapshot.parse(":jar\tfile"));
+    }
+
+    @Test
+    void fingerprintFiles_recordsRelativePathsInOrder() throws IOException {
+        final Path projectDir = tempDir.resolve("project");
+        final Path userHome = tempDir.resolve("home");
+        final Path source = projectDir.resolve("src/b.txt");
+        final Path cached = userHome.resolve("caches/a.txt");
+        Files.createDirectories(source.getParent());
+        Files.createDirectories(cached.getParent());
+        Files.writeString(source, "b");
+        Files.writeString(cached, "a");
+
+        final List<CacheSnapshot.Entry> entries = CacheSnapshot.fingerprintFiles(
+            ":jar",
+            List.of(
+                source.toFile(),
+                cached.toFile(),
+                projectDir.resolve("src")
+                    .toFile(),
+                projectDir.resolve("missing.txt")
+                    .toFile()),
+            projectDir.toFile(),
+            userHome.toFile());
+        assertEquals(
+            List.of("<gradle user home>/caches/a.txt", "src/b.txt"),
+            entries.stream()
+                .map(CacheSnapshot.Entry::key)
+                .toList());
+        assertNotEquals(
+            entries.get(0)
+                .value(),
+            entries.get(1)
+                .value());
+    }
+
+    @Test
+    void serviceName_isUniquePerPath() {
+        assertEquals(
+            CacheSnapshotService.SERVICE_NAME,
+            CacheSnapshotService.serviceName(CacheSnapshotService.SERVICE_NAME, ":"));
+        assertEquals(
+            CacheSnapshotService.CAPTURE_SERVICE_NAME + ".sub.reobfJar",
+            CacheSnapshotService.serviceName(CacheSnapshotService.CAPTURE_SERVICE_NAME, ":sub:reobfJar"));
+    }
+}
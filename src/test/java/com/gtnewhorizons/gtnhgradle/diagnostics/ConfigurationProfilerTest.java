@@ -0,0 +1,67 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the reports of {@link ConfigurationProfiler} */
+class ConfigurationProfilerTest {
+
+    private static final List<ConfigurationProfiler.ModuleProfile> PROFILES = List.of(
+        new ConfigurationProfiler.ModuleProfile("ToolchainModule", 2_000_000L, 1024L * 1024L, 3, 1),
+        new ConfigurationProfiler.ModuleProfile("MixinModule", 5_500_000L, -1, 0, 4),
+        new ConfigurationProfiler.ModuleProfile("GitVersionModule", 500_000L, 0, 1, 0));
+
+    @Test
+    void json_keepsApplicationOrder() {
+        final String json = ConfigurationProfiler.toJson(":sub", PROFILES);
+        assertTrue(json.startsWith("{\n  \"project\": \":sub\""));
+        assertTrue(json.indexOf("\"ToolchainModule\"") < json.indexOf("\"MixinModule\""));
+        assertTrue(json.indexOf("\"MixinModule\"") < json.indexOf("\"GitVersionModule\""));
+        assertTrue(
+            json.contains(
+                "{\"name\": \"MixinModule\", \"wallMillis\": 5.5, \"allocatedBytes\": -1, \"tasksRealized\": 0,"
+                    + " \"configurationsCreated\": 4}"));
+    }
+
+    @Test
+    void summary_sortsSlowestFirstAndSumsTotal() {
+        final List<String> lines = ConfigurationProfiler.toSummary(":", PROFILES)
+            .lines()
+            .toList();
+        assertEquals("GTNH module configuration profile for : (8.0 ms total):", lines.get(0));
+        assertEquals(5, lines.size());
+        assertTrue(
+            lines.get(2)
+                .trim()
+                .startsWith("MixinModule"));
+        assertTrue(
+            lines.get(2)
+                .contains("n/a"));
+        assertTrue(
+            lines.get(3)
+                .trim()
+                .startsWith("ToolchainModule"));
+        assertTrue(
+            lines.get(3)
+                .contains(" 1.0 "));
+        assertTrue(
+            lines.get(4)
+                .trim()
+                .startsWith("GitVersionModule"));
+    }
+
+    @Test
+    void reports_handleNoModules() {
+        assertEquals(
+            "{\n  \"project\": \":\",\n  \"modules\": [\n  ]\n}\n",
+            ConfigurationProfiler.toJson(":", List.of()));
+        assertEquals(
+            2,
+            ConfigurationProfiler.toSummary(":", List.of())
+                .lines()
+                .count());
+    }
+}
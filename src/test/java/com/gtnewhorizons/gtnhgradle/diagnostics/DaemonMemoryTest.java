@@ -0,0 +1,51 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link DaemonMemory} */
+class DaemonMemoryTest {
+
+    private static final long MIB = 1024L * 1024L;
+
+    private static DaemonMemory.Sample end(int build, long metaspaceMiB, int classes) {
+        return new DaemonMemory.Sample(build, "end", 0, 0, metaspaceMiB * MIB, classes, 0);
+    }
+
+    @Test
+    void findGrowth_needsTwoBuilds() {
+        assertNull(DaemonMemory.findGrowth(List.of(end(1, 100, 1000)), 10 * MIB));
+    }
+
+    @Test
+    void findGrowth_ignoresGrowthBelowThreshold() {
+        assertNull(DaemonMemory.findGrowth(List.of(end(1, 100, 1000), end(2, 105, 1100)), 10 * MIB));
+    }
+
+    @Test
+    void findGrowth_reportsGrowthAcrossBuilds() {
+        final String growth = DaemonMemory.findGrowth(
+            List.of(
+                end(1, 100, 1000),
+                new DaemonMemory.Sample(2, "start", 0, 0, 500 * MIB, 5000, 0),
+                end(2, 130, 1500),
+                end(3, 170, 2000)),
+            64 * MIB);
+        assertNotNull(growth);
+        assertTrue(growth.contains("70 MiB"), growth);
+        assertTrue(growth.contains("1000"), growth);
+    }
+
+    @Test
+    void sample_isRecordedInHistory() {
+        final int build = DaemonMemory.startBuild();
+        final DaemonMemory.Sample sample = DaemonMemory.sample(build, "start");
+        assertTrue(sample.loadedClasses() > 0);
+        assertTrue(
+            DaemonMemory.history()
+                .contains(sample));
+    }
+}
@@ -0,0 +1,95 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.gradle.api.services.BuildServiceParameters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link NetworkAudit} and the summary of {@link NetworkAuditService} */
+class NetworkAuditTest {
+
+    private NetworkAuditService service;
+
+    private NetworkAuditService newService() {
+        service = new NetworkAuditService() {
+
+            @Override
+            public BuildServiceParameters.None getParameters() {
+                return null;
+            }
+        };
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            NetworkAudit.deactivate(service);
+        }
+    }
+
+    @Test
+    void time_withoutServiceRecordsNothing() {
+        assertEquals("result", NetworkAudit.time("Test", "https://example.com", () -> "result"));
+    }
+
+    @Test
+    void time_classifiesCallsByPhase() {
+        final NetworkAuditService audit = newService();
+        NetworkAudit.time("Test", "https://example.com/before", () -> null);
+        audit.setConfiguring(true);
+        NetworkAudit.time("Test", "https://example.com/configure", () -> null);
+        audit.setConfiguring(false);
+        NetworkAudit.time("Test", "https://example.com/execute", () -> null);
+
+        assertEquals(
+            List.of(false, true, false),
+            audit.getCalls()
+                .stream()
+                .map(NetworkAudit.Call::blockedConfiguration)
+                .toList());
+    }
+
+    @Test
+    void time_recordsFailures() {
+        final NetworkAuditService audit = newService();
+        assertThrows(IOException.class, () -> NetworkAudit.time("Test", "https://example.com", () -> {
+            throw new IOException("offline");
+        }));
+        assertEquals(
+            IOException.class.getName(),
+            audit.getCalls()
+                .get(0)
+                .failure());
+    }
+
+    @Test
+    void deactivate_stopsRecording() {
+        final NetworkAuditService audit = newService();
+        NetworkAudit.deactivate(audit);
+        NetworkAudit.time("Test", "https://example.com", () -> null);
+        assertTrue(
+            audit.getCalls()
+                .isEmpty());
+    }
+
+    @Test
+    void summary_listsBlockingCallsFirst() {
+        final String summary = NetworkAuditService.summary(
+            List.of(
+                new NetworkAudit.Call("Slow", "https://example.com/slow", 9_000_000, false, null),
+                new NetworkAudit.Call("Blocking", "https://example.com/blocking", 2_000_000, true, null),
+                new NetworkAudit.Call("Failed", "https://example.com/failed", 1_000_000, true, "java.io.IOException")));
+        assertTrue(summary.startsWith("GTNH network audit: 3 calls, 3.0 ms spent blocking configuration:"));
+        assertTrue(summary.indexOf("Blocking") < summary.indexOf("Failed"));
+        assertTrue(summary.indexOf("Failed") < summary.indexOf("Slow"));
+        assertTrue(summary.contains("https://example.com/failed (failed: java.io.IOException)"));
+        assertEquals(
+            "GTNH network audit: no network calls made by GTNHGradle in this build",
+            NetworkAuditService.summary(List.of()));
+    }
+}
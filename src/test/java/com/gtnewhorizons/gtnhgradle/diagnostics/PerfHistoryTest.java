@@ -0,0 +1,119 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link PerfHistory} */
+class PerfHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static PerfHistory.Sample sample(String build, String step, String outcome, long millis) {
+        return new PerfHistory.Sample(build, 0, "abcdef1234", "1.0.0", step, outcome, millis);
+    }
+
+    private static List<PerfHistory.Sample> history(long... reobfMillis) {
+        final List<PerfHistory.Sample> samples = new ArrayList<>();
+        for (int i = 0; i < reobfMillis.length; i++) {
+            samples.add(sample("b" + i, ":reobfJar", "EXECUTED", reobfMillis[i]));
+        }
+        return samples;
+    }
+
+    @Test
+    void findRegressions_detectsSlowdownAboveThreshold() {
+        final List<PerfHistory.Regression> regressions = PerfHistory
+            .findRegressions(history(1000, 1100, 900, 1000, 1400), 10, 30, 100);
+        assertEquals(1, regressions.size());
+        final PerfHistory.Regression regression = regressions.getFirst();
+        assertEquals(":reobfJar", regression.step());
+        assertEquals(1000, regression.baselineMillis());
+        assertEquals(1400, regression.currentMillis());
+    }
+
+    @Test
+    void findRegressions_ignoresSlowdownBelowThreshold() {
+        assertTrue(
+            PerfHistory.findRegressions(history(1000, 1100, 900, 1000, 1250), 10, 30, 100)
+                .isEmpty());
+    }
+
+    @Test
+    void findRegressions_ignoresNoise() {
+        assertTrue(
+            PerfHistory.findRegressions(history(100, 100, 100, 190), 10, 30, 100)
+                .isEmpty());
+    }
+
+    @Test
+    void findRegressions_usesOnlyWindow() {
+        // The slow builds at the start fall out of the 3-build window
+        assertEquals(
+            1,
+            PerfHistory.findRegressions(history(5000, 5000, 1000, 1000, 1000, 1500), 3, 30, 100)
+                .size());
+    }
+
+    @Test
+    void findRegressions_ignoresCachedRuns() {
+        final List<PerfHistory.Sample> samples = history(1000, 1000, 1000);
+        samples.add(sample("b3", ":reobfJar", "FROM-CACHE", 5000));
+        assertTrue(
+            PerfHistory.findRegressions(samples, 10, 30, 100)
+                .isEmpty());
+    }
+
+    @Test
+    void appendAndRead_roundTrip() {
+        final Path store = tempDir.resolve("store.tsv");
+        PerfHistory.append(store, List.of(sample("b0", "configuration", PerfHistory.CONFIGURED, 1234)));
+        PerfHistory.append(store, List.of(sample("b1", ":reobfJar", "EXECUTED", 42)));
+        final List<PerfHistory.Sample> read = PerfHistory.read(store);
+        assertEquals(2, read.size());
+        assertEquals(sample("b0", "configuration", PerfHistory.CONFIGURED, 1234), read.get(0));
+        assertEquals(sample("b1", ":reobfJar", "EXECUTED", 42), read.get(1));
+    }
+
+    @Test
+    void append_prunesOldestBuildsInBatches() {
+        final Path store = tempDir.resolve("store.tsv");
+        for (int i = 0; i < PerfHistory.MAX_BUILDS + PerfHistory.PRUNE_SLACK; i++) {
+            PerfHistory.append(store, List.of(sample("b" + i, ":reobfJar", "EXECUTED", i)));
+        }
+        assertEquals(
+            PerfHistory.MAX_BUILDS + PerfHistory.PRUNE_SLACK,
+            PerfHistory.read(store)
+                .size());
+
+        PerfHistory.append(store, List.of(sample("new", ":reobfJar", "EXECUTED", 0)));
+        final List<PerfHistory.Sample> read = PerfHistory.read(store);
+        assertEquals(PerfHistory.MAX_BUILDS, read.size());
+        assertEquals(
+            "b" + (PerfHistory.PRUNE_SLACK + 1),
+            read.getFirst()
+                .buildId());
+        assertEquals(
+            "new",
+            read.getLast()
+                .buildId());
+    }
+
+    @Test
+    void storeFile_separatesCheckoutsOfTheSameProject() {
+        final Path first = PerfHistory.storeFile(tempDir, "My Mod", tempDir.resolve("a"));
+        final Path second = PerfHistory.storeFile(tempDir, "My Mod", tempDir.resolve("b"));
+        assertNotEquals(first, second);
+        assertEquals(first, PerfHistory.storeFile(tempDir, "My Mod", tempDir.resolve("x/../a")));
+        assertTrue(
+            first.getFileName()
+                .toString()
+                .matches("My_Mod-[0-9a-f]{16}\\.tsv"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.gtnewhorizons.gtnhgradle.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link StackAttribution} */
+class StackAttributionTest {
+
+    private static final StackTraceElement AUDIT = frame(
+        "com.gtnewhorizons.gtnhgradle.diagnostics.ConfigurationAudit",
+        "ConfigurationAudit.java");
+    private static final StackTraceElement GRADLE = frame(
+        "org.gradle.api.internal.DefaultNamedDomainObjectCollection",
+        "DefaultNamedDomainObjectCollection.java");
+    private static final StackTraceElement REFLECTION = frame(
+        "jdk.internal.reflect.DirectMethodHandleAccessor",
+        "DirectMethodHandleAccessor.java");
+    private static final StackTraceElement GTNH_PLUGIN = frame(
+        "com.gtnewhorizons.gtnhgradle.GTNHGradlePlugin",
+        "GTNHGradlePlugin.java");
+
+    private static StackTraceElement frame(String className, String fileName) {
+        return new StackTraceElement(className, "apply", fileName, 42);
+    }
+
+    @Test
+    void of_attributesModuleFrames() {
+        final StackAttribution attribution = StackAttribution.of(
+            Stream.of(
+                AUDIT,
+                GRADLE,
+                frame("com.gtnewhorizons.gtnhgradle.modules.MixinModule$1", "MixinModule.java"),
+                GTNH_PLUGIN),
+            "ToolchainModule");
+        assertTrue(attribution.owned());
+        assertEquals("MixinModule", attribution.module());
+        assertTrue(
+            attribution.frame()
+                .startsWith("com.gtnewhorizons.gtnhgradle.modules.MixinModule$1.apply"));
+    }
+
+    @Test
+    void of_attributesScripts() {
+        final StackAttribution attribution = StackAttribution.of(
+            Stream.of(AUDIT, GRADLE, frame("Build_gradle", "build.gradle.kts"), GRADLE, GTNH_PLUGIN),
+            null);
+        assertTrue(attribution.owned());
+        assertEquals("script build.gradle.kts", attribution.module());
+    }
+
+    @Test
+    void of_otherPluginsAppliedByGtnhStayForeign() {
+        final StackAttribution attribution = StackAttribution.of(
+            Stream.of(
+                AUDIT,
+                GRADLE,
+                frame("com.gtnewhorizons.retrofuturagradle.UserDevPlugin", "UserDevPlugin.java"),
+                REFLECTION,
+                GRADLE,
+                GTNH_PLUGIN),
+            null);
+        assertFalse(attribution.owned());
+        assertEquals("(other plugin)", attribution.frame());
+        assertEquals("-", attribution.module());
+    }
+
+    @Test
+    void of_gradleOnlyStackIsForeign() {
+        final StackAttribution attribution = StackAttribution.of(Stream.of(AUDIT, GRADLE), "PublishingModule");
+        assertFalse(attribution.owned());
+        assertEquals("PublishingModule", attribution.module());
+    }
+}
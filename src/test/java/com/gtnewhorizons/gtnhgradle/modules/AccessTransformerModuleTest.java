@@ -0,0 +1,50 @@
+package com.gtnewhorizons.gtnhgradle.modules;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the access transformer discovery of {@link AccessTransformerModule} */
+class AccessTransformerModuleTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findAccessTransformers_scansMainAndApiResources() throws IOException {
+        final Path main = tempDir.resolve("src/main/resources/META-INF/mymod_at.cfg");
+        final Path api = tempDir.resolve("src/api/resources/Other_AT.cfg");
+        final Path ignored = tempDir.resolve("src/test/resources/test_at.cfg");
+        for (final Path p : List.of(main, api, ignored)) {
+            Files.createDirectories(p.getParent());
+            Files.writeString(p, "public net.minecraft.Foo");
+        }
+        Files.writeString(tempDir.resolve("src/main/resources/mcmod.info"), "[]");
+
+        final List<File> found = AccessTransformerModule.findAccessTransformers(
+            List.of(
+                tempDir.resolve("src/main/resources")
+                    .toFile(),
+                tempDir.resolve("src/api/resources")
+                    .toFile()));
+        assertEquals(List.of(api.toFile(), main.toFile()), found);
+    }
+
+    @Test
+    void findAccessTransformers_skipsAssets() throws IOException {
+        final Path root = tempDir.resolve("resources");
+        final Path asset = root.resolve("assets/mymodid/textures/fake_at.cfg");
+        Files.createDirectories(asset.getParent());
+        Files.writeString(asset, "");
+        Files.createDirectories(root.resolve("root_at.cfg"));
+
+        assertEquals(List.of(), AccessTransformerModule.findAccessTransformers(List.of(root.toFile())));
+    }
+}
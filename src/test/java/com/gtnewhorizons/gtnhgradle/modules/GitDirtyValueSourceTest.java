@@ -0,0 +1,23 @@
+package com.gtnewhorizons.gtnhgradle.modules;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link GitDirtyValueSource#pathspec} */
+class GitDirtyValueSourceTest {
+
+    @Test
+    void pathspec_excludesRunDirectories() {
+        assertEquals(
+            List.of(":/", ":(exclude)run/client", ":(exclude)run/server"),
+            GitDirtyValueSource.pathspec(List.of("run/client", "run\\server")));
+    }
+
+    @Test
+    void pathspec_skipsPathsOutsideTheProject() {
+        assertEquals(List.of(":/"), GitDirtyValueSource.pathspec(List.of("", "../run", "/tmp/run")));
+    }
+}
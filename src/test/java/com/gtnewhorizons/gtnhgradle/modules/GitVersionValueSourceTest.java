@@ -0,0 +1,70 @@
+package com.gtnewhorizons.gtnhgradle.modules;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the fingerprint and on-disk cache of {@link GitVersionValueSource} */
+class GitVersionValueSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path gitDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        gitDir = tempDir.resolve("repo/.git");
+        Files.createDirectories(gitDir.resolve("refs/heads"));
+        Files.writeString(gitDir.resolve("HEAD"), "ref: refs/heads/master\n");
+        Files.writeString(gitDir.resolve("refs/heads/master"), "1111111111111111111111111111111111111111\n");
+    }
+
+    @Test
+    void findGitDir_walksUpAndFollowsGitFiles() throws IOException {
+        final Path subproject = tempDir.resolve("repo/sub/project");
+        Files.createDirectories(subproject);
+        assertEquals(gitDir, GitVersionValueSource.findGitDir(subproject));
+
+        final Path worktree = tempDir.resolve("worktree");
+        Files.createDirectories(worktree);
+        Files.writeString(worktree.resolve(".git"), "gitdir: ../repo/.git/worktrees/wt\n");
+        assertEquals(gitDir.resolve("worktrees/wt"), GitVersionValueSource.findGitDir(worktree));
+    }
+
+    @Test
+    void fingerprint_changesWithCommitsAndTags() throws IOException {
+        final String initial = GitVersionValueSource.fingerprint(gitDir);
+        assertEquals(initial, GitVersionValueSource.fingerprint(gitDir));
+
+        Files.writeString(gitDir.resolve("refs/heads/master"), "2222222222222222222222222222222222222222\n");
+        final String committed = GitVersionValueSource.fingerprint(gitDir);
+        assertNotEquals(initial, committed);
+
+        Files.createDirectories(gitDir.resolve("refs/tags"));
+        Files.writeString(gitDir.resolve("refs/tags/1.0.0"), "2222222222222222222222222222222222222222\n");
+        assertNotEquals(committed, GitVersionValueSource.fingerprint(gitDir));
+    }
+
+    @Test
+    void cache_onlyReturnsDetailsForTheSameFingerprint() throws IOException {
+        final Path cacheFile = tempDir.resolve("build/gtnh/gitVersion.properties");
+        final GitVersionValueSource.Details details = new GitVersionValueSource.Details(
+            "1.0.0",
+            "abcdef0123",
+            3,
+            null,
+            true);
+        assertNull(GitVersionValueSource.readCache(cacheFile, "a"));
+
+        GitVersionValueSource.writeCache(cacheFile, "a", details);
+        assertEquals(details, GitVersionValueSource.readCache(cacheFile, "a"));
+        assertNull(GitVersionValueSource.readCache(cacheFile, "b"));
+    }
+}
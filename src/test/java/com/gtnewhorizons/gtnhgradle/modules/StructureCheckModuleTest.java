@@ -0,0 +1,82 @@
+package com.gtnewhorizons.gtnhgradle.modules;
+
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for the {@link StructureCheckModule} checks */
+class StructureCheckModuleTest {
+
+    private static StructureCheckModule.Inputs inputs(String apiPackage, boolean usesMixins, String mixinsPackage) {
+        return new StructureCheckModule.Inputs("com.myname.mymodid", apiPackage, usesMixins, mixinsPackage, "", "", "");
+    }
+
+    @Test
+    void check_acceptsExistingPackages() {
+        final Set<String> existing = Set.of(
+            "src/main/java/com/myname/mymodid",
+            "src/main/java/com/myname/mymodid/api",
+            "src/main/java/com/myname/mymodid/mixins");
+        assertNull(StructureCheckModule.check(inputs("api", true, "mixins"), existing::contains));
+    }
+
+    @Test
+    void check_acceptsKotlinSources() {
+        assertNull(
+            StructureCheckModule.check(inputs("", false, ""), "src/main/kotlin/com/myname/mymodid"::equals));
+    }
+
+    @Test
+    void check_reportsMissingModGroup() {
+        final GradleException failure = StructureCheckModule.check(inputs("", false, ""), _p -> false);
+        assertNotNull(failure);
+        assertTrue(
+            failure.getMessage()
+                .contains("Could not resolve \"modGroup\""));
+    }
+
+    @Test
+    void check_reportsMixinsWithoutPackage() {
+        final GradleException failure = StructureCheckModule
+            .check(inputs("", true, ""), "src/main/java/com/myname/mymodid"::equals);
+        assertNotNull(failure);
+        assertTrue(
+            failure.getMessage()
+                .contains("\"usesMixins\" requires \"mixinsPackage\""));
+    }
+
+    @Test
+    void checkProperties_onlyRejectsMixinsWithoutPackage() {
+        assertNull(StructureCheckModule.checkProperties(inputs("missing", false, "")));
+        assertNotNull(StructureCheckModule.checkProperties(inputs("", true, "")));
+    }
+
+    @Test
+    void requirements_listMixinSourceSetCandidates() {
+        final StructureCheckModule.Inputs inputs = new StructureCheckModule.Inputs(
+            "com.myname.mymodid",
+            "",
+            true,
+            "mixins",
+            "",
+            "mixin",
+            "core.CoreMod");
+        final List<StructureCheckModule.Requirement> requirements = StructureCheckModule.requirements(inputs);
+        assertEquals(
+            List.of("modGroup", "mixinsPackage", "coreModClass"),
+            requirements.stream()
+                .map(StructureCheckModule.Requirement::property)
+                .toList());
+        assertEquals(
+            List.of(
+                "src/mixin/java/com/myname/mymodid/mixins",
+                "src/mixin/scala/com/myname/mymodid/mixins",
+                "src/mixin/kotlin/com/myname/mymodid/mixins"),
+            requirements.get(1)
+                .candidates());
+    }
+}
@@ -0,0 +1,72 @@
+package com.gtnewhorizons.gtnhgradle.tasks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unit tests for {@link NormalizeAccessTransformersTask#normalize} */
+class NormalizeAccessTransformersTaskTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void normalize_ignoresCommentsOrderAndDuplicates() throws IOException {
+        final Path first = tempDir.resolve("first_at.cfg");
+        final Path second = tempDir.resolve("second_at.cfg");
+        Files.writeString(first, """
+            # Fields
+            public net.minecraft.client.Minecraft field_71428_T # timer
+
+            public   net.minecraft.world.World func_72964_e(II)Lnet/minecraft/world/chunk/Chunk;
+            """);
+        Files.writeString(second, """
+            public net.minecraft.world.World func_72964_e(II)Lnet/minecraft/world/chunk/Chunk;
+            public net.minecraft.client.Minecraft field_71428_T
+            """);
+
+        final String expected = """
+            public net.minecraft.client.Minecraft field_71428_T
+            public net.minecraft.world.World func_72964_e(II)Lnet/minecraft/world/chunk/Chunk;
+            """;
+        assertEquals(expected, NormalizeAccessTransformersTask.normalize(List.of(first.toFile())));
+        assertEquals(
+            expected,
+            NormalizeAccessTransformersTask.normalize(List.of(second.toFile(), first.toFile())));
+    }
+
+    @Test
+    void normalize_keepsEveryAccessChange() throws IOException {
+        // The jar ships the original files, so the deobfuscation must not lose or merge any of their entries
+        final Path mod = tempDir.resolve("mod_at.cfg");
+        final Path api = tempDir.resolve("api_at.cfg");
+        Files.writeString(mod, """
+            public-f net.minecraft.item.Item field_77777_bU # maxStackSize
+            public net.minecraft.item.Item *
+            """);
+        Files.writeString(api, """
+            public net.minecraft.item.Item field_77777_bU
+            protected net.minecraft.item.Item *()
+            """);
+
+        assertEquals("""
+            protected net.minecraft.item.Item *()
+            public net.minecraft.item.Item *
+            public net.minecraft.item.Item field_77777_bU
+            public-f net.minecraft.item.Item field_77777_bU
+            """, NormalizeAccessTransformersTask.normalize(List.of(mod.toFile(), api.toFile())));
+    }
+
+    @Test
+    void normalize_emptyWithoutEntries() throws IOException {
+        final Path commentsOnly = tempDir.resolve("empty_at.cfg");
+        Files.writeString(commentsOnly, "# Nothing yet\n\n");
+        assertEquals("", NormalizeAccessTransformersTask.normalize(List.of(commentsOnly.toFile())));
+    }
+}